@@ -1,18 +1,121 @@
 package elasticsearch.custom.plugin;
 
+import elasticsearch.custom.plugin.aggregation.InternalNormalizedTopHits;
+import elasticsearch.custom.plugin.aggregation.NormalizedTopHitsAggregationBuilder;
 import elasticsearch.custom.plugin.builder.RescorerNormalizerBuilder;
+import elasticsearch.custom.plugin.query.NormalizedScoreQueryBuilder;
+import elasticsearch.custom.plugin.rescorer.distribution.ScoreDistributionRegistry;
+import elasticsearch.custom.plugin.rest.RestScoreDistributionStatsAction;
+import elasticsearch.custom.plugin.rest.RestSimulateScoreNormalizerAction;
+import org.apache.lucene.util.SetOnce;
+import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
+import org.elasticsearch.cluster.node.DiscoveryNodes;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.IndexScopedSettings;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.settings.SettingsFilter;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.index.IndexModule;
+import org.elasticsearch.index.shard.IndexEventListener;
+import org.elasticsearch.index.shard.IndexShard;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.indices.breaker.BreakerSettings;
+import org.elasticsearch.monitor.jvm.JvmInfo;
+import org.elasticsearch.plugins.ActionPlugin;
+import org.elasticsearch.plugins.CircuitBreakerPlugin;
 import org.elasticsearch.plugins.Plugin;
 import org.elasticsearch.plugins.SearchPlugin;
+import org.elasticsearch.rest.RestController;
+import org.elasticsearch.rest.RestHandler;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 import static java.util.Collections.singletonList;
 
-public class RescorerNormalizerPlugin extends Plugin implements SearchPlugin {
+public class RescorerNormalizerPlugin extends Plugin implements SearchPlugin, ActionPlugin, CircuitBreakerPlugin {
+
+    // _simulate 요청 메모리 집계용 circuit breaker (breaker.score_normalizer.limit, 기본값 heap 의 50%)
+    public static final String CIRCUIT_BREAKER_NAME = "score_normalizer";
+    private static final double CIRCUIT_BREAKER_LIMIT_RATIO = 0.5;
+    private static final double CIRCUIT_BREAKER_OVERHEAD = 1.0;
+
+    private final SetOnce<CircuitBreaker> circuitBreaker = new SetOnce<>();
 
     @Override
     public List<RescorerSpec<?>> getRescorers() {
         return singletonList(
                 new RescorerSpec<>(RescorerNormalizerBuilder.NAME, RescorerNormalizerBuilder::new, RescorerNormalizerBuilder::fromXContent));
     }
+
+    @Override
+    public List<QuerySpec<?>> getQueries() {
+        return singletonList(
+                new QuerySpec<>(NormalizedScoreQueryBuilder.NAME, NormalizedScoreQueryBuilder::new, NormalizedScoreQueryBuilder::fromXContent));
+    }
+
+    @Override
+    public List<AggregationSpec> getAggregations() {
+        return singletonList(
+                new AggregationSpec(
+                        NormalizedTopHitsAggregationBuilder.NAME,
+                        NormalizedTopHitsAggregationBuilder::new,
+                        NormalizedTopHitsAggregationBuilder::parse)
+                        .addResultReader(InternalNormalizedTopHits::new));
+    }
+
+    @Override
+    public List<Setting<?>> getSettings() {
+        return List.of(RescorerNormalizerBuilder.LATENCY_BUDGET_SETTING);
+    }
+
+    @Override
+    public List<RestHandler> getRestHandlers(
+            Settings settings,
+            RestController restController,
+            ClusterSettings clusterSettings,
+            IndexScopedSettings indexScopedSettings,
+            SettingsFilter settingsFilter,
+            IndexNameExpressionResolver indexNameExpressionResolver,
+            Supplier<DiscoveryNodes> nodesInCluster) {
+        return List.of(new RestScoreDistributionStatsAction(), new RestSimulateScoreNormalizerAction(settings, circuitBreaker::get));
+    }
+
+    @Override
+    public BreakerSettings getCircuitBreaker(Settings settings) {
+        long limit = (long) (CIRCUIT_BREAKER_LIMIT_RATIO * JvmInfo.jvmInfo().getMem().getHeapMax().getBytes());
+        return BreakerSettings.updateFromSettings(
+                new BreakerSettings(
+                        CIRCUIT_BREAKER_NAME,
+                        limit,
+                        CIRCUIT_BREAKER_OVERHEAD,
+                        CircuitBreaker.Type.MEMORY,
+                        CircuitBreaker.Durability.TRANSIENT),
+                settings);
+    }
+
+    @Override
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        assert circuitBreaker.getName().equals(CIRCUIT_BREAKER_NAME);
+        this.circuitBreaker.set(circuitBreaker);
+    }
+
+    @Override
+    public void onIndexModule(IndexModule indexModule) {
+        // shard 생성 시 stable 모드 누적 score 분포 등록, 종료 시 제거
+        // (rescore 는 조회만 하므로 종료된 shard 의 분포가 다시 등록되지 않음)
+        indexModule.addIndexEventListener(new IndexEventListener() {
+            @Override
+            public void afterIndexShardCreated(IndexShard indexShard) {
+                ScoreDistributionRegistry.INSTANCE.create(indexShard.shardId());
+            }
+
+            @Override
+            public void afterIndexShardClosed(ShardId shardId, @Nullable IndexShard indexShard, Settings indexSettings) {
+                ScoreDistributionRegistry.INSTANCE.remove(shardId);
+            }
+        });
+    }
 }
@@ -0,0 +1,312 @@
+package elasticsearch.custom.plugin.aggregation;
+
+import elasticsearch.custom.plugin.enumeration.NormalizerType;
+import elasticsearch.custom.plugin.rescorer.NormalizedCustomRescorer;
+import elasticsearch.custom.plugin.rescorer.normalizer.CustomNormalizerSelector;
+import elasticsearch.custom.plugin.rescorer.normalizer.NormalizerScratch;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.search.aggregations.AggregationReduceContext;
+import org.elasticsearch.search.aggregations.AggregatorReducer;
+import org.elasticsearch.search.aggregations.InternalAggregation;
+import org.elasticsearch.search.aggregations.support.SamplingContext;
+import org.elasticsearch.xcontent.ToXContentObject;
+import org.elasticsearch.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public class InternalNormalizedTopHits extends InternalAggregation {
+
+    private final int size;
+    private final String normalizerType;
+    private final float minScore;
+    private final float maxScore;
+    private final float factor;
+    private final String factorMode;
+    private final String minMaxSameScoreStrategy;
+    private final float rankConstant;
+    // hits 의 score 가 정규화 되었는지 여부 (shard 결과, 중간 reduce 결과는 원본 score)
+    private final boolean normalized;
+    private final List<NormalizedHit> hits;
+
+    public InternalNormalizedTopHits(
+            String name,
+            int size,
+            String normalizerType,
+            float minScore,
+            float maxScore,
+            float factor,
+            String factorMode,
+            String minMaxSameScoreStrategy,
+            float rankConstant,
+            boolean normalized,
+            List<NormalizedHit> hits,
+            Map<String, Object> metadata) {
+        super(name, metadata);
+        this.size = size;
+        this.normalizerType = normalizerType;
+        this.minScore = minScore;
+        this.maxScore = maxScore;
+        this.factor = factor;
+        this.factorMode = factorMode;
+        this.minMaxSameScoreStrategy = minMaxSameScoreStrategy;
+        this.rankConstant = rankConstant;
+        this.normalized = normalized;
+        this.hits = hits;
+    }
+
+    public InternalNormalizedTopHits(StreamInput in) throws IOException {
+        super(in);
+        size = in.readVInt();
+        normalizerType = in.readString();
+        minScore = in.readFloat();
+        maxScore = in.readFloat();
+        factor = in.readFloat();
+        factorMode = in.readString();
+        minMaxSameScoreStrategy = in.readString();
+        rankConstant = in.readFloat();
+        normalized = in.readBoolean();
+        int hitsSize = in.readVInt();
+        hits = new ArrayList<>(hitsSize);
+        for (int i = 0; i < hitsSize; i++) {
+            hits.add(new NormalizedHit(in));
+        }
+    }
+
+    @Override
+    protected void doWriteTo(StreamOutput out) throws IOException {
+        out.writeVInt(size);
+        out.writeString(normalizerType);
+        out.writeFloat(minScore);
+        out.writeFloat(maxScore);
+        out.writeFloat(factor);
+        out.writeString(factorMode);
+        out.writeString(minMaxSameScoreStrategy);
+        out.writeFloat(rankConstant);
+        out.writeBoolean(normalized);
+        out.writeVInt(hits.size());
+        for (NormalizedHit hit : hits) {
+            hit.writeTo(out);
+        }
+    }
+
+    @Override
+    public String getWriteableName() {
+        return NormalizedTopHitsAggregationBuilder.NAME;
+    }
+
+    /**
+     * shard 별 상위 도큐먼트를 원본 score 순으로 병합하여 상위 size 개 반환.
+     * 최종 reduce 에서만 bucket 전체의 상위 size 개를 한 번 정규화합니다.
+     * (shard 별로 정규화한 뒤 병합하면 shard 마다 max_score, 1 순위가 생겨 bucket 내 순위가 섞이므로,
+     *  정규화 결과가 단일 shard index 의 결과와 같도록 병합 이후에 정규화)
+     *
+     * @param reduceContext
+     * @param size
+     * @return
+     */
+    @Override
+    protected AggregatorReducer getLeaderReducer(AggregationReduceContext reduceContext, int size) {
+        return new AggregatorReducer() {
+
+            final List<NormalizedHit> merged = new ArrayList<>();
+
+            @Override
+            public void accept(InternalAggregation aggregation) {
+                merged.addAll(((InternalNormalizedTopHits) aggregation).hits);
+            }
+
+            @Override
+            public InternalAggregation get() {
+                merged.sort(NormalizedHit.BY_SCORE_DESC);
+                int topSize = Math.min(InternalNormalizedTopHits.this.size, merged.size());
+                List<NormalizedHit> top = new ArrayList<>(merged.subList(0, topSize));
+                boolean finalReduce = reduceContext.isFinalReduce();
+                if (finalReduce) {
+                    top = normalize(top, reduceContext.bigArrays());
+                }
+                return new InternalNormalizedTopHits(
+                        getName(), InternalNormalizedTopHits.this.size, normalizerType, minScore, maxScore, factor,
+                        factorMode, minMaxSameScoreStrategy, rankConstant, finalReduce, top, getMetadata());
+            }
+        };
+    }
+
+    /**
+     * 원본 score 내림차순 hits 를 rescorer 와 동일한 normalizer 로 정규화.
+     *
+     * @param hits      원본 score 내림차순 상위 도큐먼트
+     * @param bigArrays scratch buffer 할당용 BigArrays
+     * @return 정규화된 score 내림차순 hits
+     */
+    private List<NormalizedHit> normalize(List<NormalizedHit> hits, BigArrays bigArrays) {
+        if (hits.isEmpty()) {
+            return hits;
+        }
+        ScoreDoc[] scoreDocs = new ScoreDoc[hits.size()];
+        for (int i = 0; i < scoreDocs.length; i++) {
+            scoreDocs[i] = new ScoreDoc(i, hits.get(i).score);
+        }
+        TopDocs topDocs = new TopDocs(new TotalHits(scoreDocs.length, TotalHits.Relation.EQUAL_TO), scoreDocs);
+        NormalizedCustomRescorer.NormalizerRescorerContext normalizerContext =
+                new NormalizedCustomRescorer.NormalizerRescorerContext(
+                        size, normalizerType, minScore, maxScore, factor, factorMode, minMaxSameScoreStrategy,
+                        0.0f, 0.0f, rankConstant, null, Collections.emptyList(), TimeValue.ZERO, bigArrays);
+        try (NormalizerScratch scratch = new NormalizerScratch(bigArrays)) {
+            CustomNormalizerSelector
+                    .getCustomNormalizer(NormalizerType.valueOf(normalizerType))
+                    .normalize(topDocs, normalizerContext, scratch);
+        }
+
+        List<NormalizedHit> normalizedHits = new ArrayList<>(scoreDocs.length);
+        for (ScoreDoc scoreDoc : scoreDocs) {
+            NormalizedHit hit = hits.get(scoreDoc.doc);
+            normalizedHits.add(new NormalizedHit(hit.index, hit.id, scoreDoc.score));
+        }
+        normalizedHits.sort(NormalizedHit.BY_SCORE_DESC);
+        return normalizedHits;
+    }
+
+    /**
+     * 단일 shard 결과도 최종 reduce 에서 정규화 해야 하므로 항상 reduce.
+     *
+     * @return
+     */
+    @Override
+    protected boolean mustReduceOnSingleInternalAgg() {
+        return true;
+    }
+
+    @Override
+    public InternalAggregation finalizeSampling(SamplingContext samplingContext) {
+        return this;
+    }
+
+    @Override
+    public Object getProperty(List<String> path) {
+        if (path.isEmpty()) {
+            return this;
+        }
+        throw new IllegalArgumentException("path not supported for [" + getName() + "]: " + path);
+    }
+
+    @Override
+    public XContentBuilder doXContentBody(XContentBuilder builder, Params params) throws IOException {
+        builder.startArray("hits");
+        for (NormalizedHit hit : hits) {
+            hit.toXContent(builder, params);
+        }
+        builder.endArray();
+        return builder;
+    }
+
+    public List<NormalizedHit> getHits() {
+        return hits;
+    }
+
+    public boolean isNormalized() {
+        return normalized;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        if (super.equals(obj) == false) return false;
+        InternalNormalizedTopHits other = (InternalNormalizedTopHits) obj;
+        return size == other.size
+                && Objects.equals(normalizerType, other.normalizerType)
+                && Float.compare(minScore, other.minScore) == 0
+                && Float.compare(maxScore, other.maxScore) == 0
+                && Float.compare(factor, other.factor) == 0
+                && Objects.equals(factorMode, other.factorMode)
+                && Objects.equals(minMaxSameScoreStrategy, other.minMaxSameScoreStrategy)
+                && Float.compare(rankConstant, other.rankConstant) == 0
+                && normalized == other.normalized
+                && Objects.equals(hits, other.hits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), size, normalizerType, minScore, maxScore, factor, factorMode,
+                minMaxSameScoreStrategy, rankConstant, normalized, hits);
+    }
+
+    /**
+     * bucket 상위 도큐먼트. (최종 reduce 이전에는 원본 score, 이후에는 정규화된 score)
+     */
+    public static class NormalizedHit implements Writeable, ToXContentObject {
+
+        static final Comparator<NormalizedHit> BY_SCORE_DESC = (a, b) -> Float.compare(b.score, a.score);
+
+        private final String index;
+        private final String id;
+        private final float score;
+
+        public NormalizedHit(String index, String id, float score) {
+            this.index = index;
+            this.id = id;
+            this.score = score;
+        }
+
+        NormalizedHit(StreamInput in) throws IOException {
+            index = in.readString();
+            id = in.readOptionalString();
+            score = in.readFloat();
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeString(index);
+            out.writeOptionalString(id);
+            out.writeFloat(score);
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject();
+            builder.field("_index", index);
+            builder.field("_id", id);
+            builder.field("_score", score);
+            builder.endObject();
+            return builder;
+        }
+
+        public String getIndex() {
+            return index;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public float getScore() {
+            return score;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || getClass() != obj.getClass()) return false;
+            NormalizedHit other = (NormalizedHit) obj;
+            return Float.compare(score, other.score) == 0 && Objects.equals(index, other.index) && Objects.equals(id, other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(index, id, score);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package elasticsearch.custom.plugin.aggregation;
+
+import elasticsearch.custom.plugin.builder.RescorerNormalizerBuilder;
+import elasticsearch.custom.plugin.enumeration.MinMaxSameScoreStrategy;
+import elasticsearch.custom.plugin.enumeration.NormalizerFactorOperation;
+import elasticsearch.custom.plugin.enumeration.NormalizerType;
+import org.elasticsearch.TransportVersion;
+import org.elasticsearch.TransportVersions;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.search.aggregations.AbstractAggregationBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilder;
+import org.elasticsearch.search.aggregations.AggregatorFactories;
+import org.elasticsearch.search.aggregations.AggregatorFactory;
+import org.elasticsearch.search.aggregations.support.AggregationContext;
+import org.elasticsearch.xcontent.ObjectParser;
+import org.elasticsearch.xcontent.ParseField;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.XContentParser;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+
+public class NormalizedTopHitsAggregationBuilder extends AbstractAggregationBuilder<NormalizedTopHitsAggregationBuilder> {
+
+    // 상수 설정
+    public static final String NAME = "normalized_top_hits";
+
+    private static final ParseField SIZE = new ParseField("size");
+    private static final ParseField NORMALIZER_TYPE = new ParseField("normalizer_type");
+    private static final ParseField MIN_SCORE = new ParseField("min_score");
+    private static final ParseField MAX_SCORE = new ParseField("max_score");
+    private static final ParseField FACTOR = new ParseField("factor");
+    private static final ParseField FACTOR_MODE = new ParseField("factor_mode");
+    private static final ParseField MIN_MAX_SAME_SCORE_STRATEGY = new ParseField("min_max_same_score_strategy");
+    private static final ParseField RANK_CONSTANT = new ParseField("rank_constant");
+
+    private static final int DEFAULT_SIZE = 3;
+
+    // 변수 설정
+    private int size = DEFAULT_SIZE;
+    private String normalizerType = NormalizerType.min_max.name();
+    private float minScore = 0.0f;
+    private float maxScore = 1.0f;
+    private float factor = 0.0f;
+    private String factorMode = NormalizerFactorOperation.increase_by_percent.name();
+    private String minMaxSameScoreStrategy = MinMaxSameScoreStrategy.avg.name();
+    private float rankConstant = RescorerNormalizerBuilder.DEFAULT_RANK_CONSTANT;
+
+    // ObjectParser 설정
+    private static final ObjectParser<NormalizedTopHitsAggregationBuilder, Void> PARSER = new ObjectParser<>(NAME);
+
+    static {
+        PARSER.declareInt(NormalizedTopHitsAggregationBuilder::setSize, SIZE);
+        PARSER.declareString(NormalizedTopHitsAggregationBuilder::setNormalizerType, NORMALIZER_TYPE);
+        PARSER.declareFloat(NormalizedTopHitsAggregationBuilder::setMinScore, MIN_SCORE);
+        PARSER.declareFloat(NormalizedTopHitsAggregationBuilder::setMaxScore, MAX_SCORE);
+        PARSER.declareFloat(NormalizedTopHitsAggregationBuilder::setFactor, FACTOR);
+        PARSER.declareString(NormalizedTopHitsAggregationBuilder::setFactorMode, FACTOR_MODE);
+        PARSER.declareString(NormalizedTopHitsAggregationBuilder::setMinMaxSameScoreStrategy, MIN_MAX_SAME_SCORE_STRATEGY);
+        PARSER.declareFloat(NormalizedTopHitsAggregationBuilder::setRankConstant, RANK_CONSTANT);
+    }
+
+    public NormalizedTopHitsAggregationBuilder(String name) {
+        super(name);
+    }
+
+    protected NormalizedTopHitsAggregationBuilder(
+            NormalizedTopHitsAggregationBuilder clone,
+            AggregatorFactories.Builder factoriesBuilder,
+            Map<String, Object> metadata) {
+        super(clone, factoriesBuilder, metadata);
+        this.size = clone.size;
+        this.normalizerType = clone.normalizerType;
+        this.minScore = clone.minScore;
+        this.maxScore = clone.maxScore;
+        this.factor = clone.factor;
+        this.factorMode = clone.factorMode;
+        this.minMaxSameScoreStrategy = clone.minMaxSameScoreStrategy;
+        this.rankConstant = clone.rankConstant;
+    }
+
+    public NormalizedTopHitsAggregationBuilder(StreamInput in) throws IOException {
+        super(in);
+        size = in.readVInt();
+        normalizerType = in.readString();
+        minScore = in.readFloat();
+        maxScore = in.readFloat();
+        factor = in.readFloat();
+        factorMode = in.readString();
+        minMaxSameScoreStrategy = in.readString();
+        rankConstant = in.readFloat();
+    }
+
+    public static NormalizedTopHitsAggregationBuilder parse(XContentParser parser, String aggregationName) throws IOException {
+        return PARSER.parse(parser, new NormalizedTopHitsAggregationBuilder(aggregationName), null);
+    }
+
+    @Override
+    protected void doWriteTo(StreamOutput out) throws IOException {
+        out.writeVInt(size);
+        out.writeString(normalizerType);
+        out.writeFloat(minScore);
+        out.writeFloat(maxScore);
+        out.writeFloat(factor);
+        out.writeString(factorMode);
+        out.writeString(minMaxSameScoreStrategy);
+        out.writeFloat(rankConstant);
+    }
+
+    @Override
+    protected XContentBuilder internalXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject();
+        builder.field(SIZE.getPreferredName(), size);
+        builder.field(NORMALIZER_TYPE.getPreferredName(), normalizerType);
+        builder.field(MIN_SCORE.getPreferredName(), minScore);
+        builder.field(MAX_SCORE.getPreferredName(), maxScore);
+        builder.field(FACTOR.getPreferredName(), factor);
+        builder.field(FACTOR_MODE.getPreferredName(), factorMode);
+        builder.field(MIN_MAX_SAME_SCORE_STRATEGY.getPreferredName(), minMaxSameScoreStrategy);
+        builder.field(RANK_CONSTANT.getPreferredName(), rankConstant);
+        builder.endObject();
+        return builder;
+    }
+
+    @Override
+    protected AggregatorFactory doBuild(
+            AggregationContext context,
+            AggregatorFactory parent,
+            AggregatorFactories.Builder subFactoriesBuilder) throws IOException {
+        return new NormalizedTopHitsAggregatorFactory(
+                name, size, normalizerType, minScore, maxScore, factor, factorMode, minMaxSameScoreStrategy, rankConstant,
+                context, parent, subFactoriesBuilder, metadata);
+    }
+
+    @Override
+    protected AggregationBuilder shallowCopy(AggregatorFactories.Builder factoriesBuilder, Map<String, Object> metadata) {
+        return new NormalizedTopHitsAggregationBuilder(this, factoriesBuilder, metadata);
+    }
+
+    @Override
+    public BucketCardinality bucketCardinality() {
+        return BucketCardinality.NONE;
+    }
+
+    @Override
+    public String getType() {
+        return NAME;
+    }
+
+    @Override
+    public TransportVersion getMinimalSupportedVersion() {
+        return TransportVersions.V_8_0_0;
+    }
+
+    public void setSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("[" + SIZE.getPreferredName() + "] must be greater than or equal to 0");
+        }
+        this.size = size;
+    }
+
+    /**
+     * bucket 단위로 정규화하므로 shard 누적 분포를 사용하는 stable 모드는 지원하지 않습니다.
+     *
+     * @param normalizerType
+     */
+    public void setNormalizerType(String normalizerType) {
+        if (NormalizerType.isValid(normalizerType) == false || NormalizerType.stable.name().equals(normalizerType)) {
+            throw new IllegalArgumentException(
+                    "[" + NAME + "] allowed normalizer_type "
+                            + "(min_max, z_score, robust, robust_approximate, percentile_rank, reciprocal_rank)");
+        }
+        this.normalizerType = normalizerType;
+    }
+
+    public void setMinScore(float minScore) {
+        this.minScore = minScore;
+    }
+
+    public void setMaxScore(float maxScore) {
+        this.maxScore = maxScore;
+    }
+
+    public void setFactor(float factor) {
+        this.factor = factor;
+    }
+
+    public void setFactorMode(String factorMode) {
+        this.factorMode = factorMode;
+    }
+
+    public void setMinMaxSameScoreStrategy(String minMaxSameScoreStrategy) {
+        this.minMaxSameScoreStrategy = minMaxSameScoreStrategy;
+    }
+
+    public void setRankConstant(float rankConstant) {
+        if (rankConstant < 0) {
+            throw new IllegalArgumentException("[" + RANK_CONSTANT.getPreferredName() + "] must be greater than or equal to 0");
+        }
+        this.rankConstant = rankConstant;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        if (super.equals(o) == false) return false;
+        NormalizedTopHitsAggregationBuilder other = (NormalizedTopHitsAggregationBuilder) o;
+        return size == other.size
+                && Float.compare(minScore, other.minScore) == 0
+                && Float.compare(maxScore, other.maxScore) == 0
+                && Float.compare(factor, other.factor) == 0
+                && Float.compare(rankConstant, other.rankConstant) == 0
+                && Objects.equals(normalizerType, other.normalizerType)
+                && Objects.equals(factorMode, other.factorMode)
+                && Objects.equals(minMaxSameScoreStrategy, other.minMaxSameScoreStrategy);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+                super.hashCode(), size, normalizerType, minScore, maxScore, factor, factorMode, minMaxSameScoreStrategy,
+                rankConstant);
+    }
+}
@@ -0,0 +1,157 @@
+package elasticsearch.custom.plugin.aggregation;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.search.LeafCollector;
+import org.apache.lucene.search.Scorable;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.elasticsearch.common.util.LongObjectPagedHashMap;
+import org.elasticsearch.core.Releasables;
+import org.elasticsearch.index.fieldvisitor.FieldsVisitor;
+import org.elasticsearch.search.aggregations.AggregationExecutionContext;
+import org.elasticsearch.search.aggregations.Aggregator;
+import org.elasticsearch.search.aggregations.InternalAggregation;
+import org.elasticsearch.search.aggregations.LeafBucketCollector;
+import org.elasticsearch.search.aggregations.LeafBucketCollectorBase;
+import org.elasticsearch.search.aggregations.metrics.MetricsAggregator;
+import org.elasticsearch.search.aggregations.support.AggregationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+class NormalizedTopHitsAggregator extends MetricsAggregator {
+
+    private final int size;
+    private final String normalizerType;
+    private final float minScore;
+    private final float maxScore;
+    private final float factor;
+    private final String factorMode;
+    private final String minMaxSameScoreStrategy;
+    private final float rankConstant;
+    private final String indexName;
+    private final AggregationContext aggregationContext;
+    // bucket 별 상위 도큐먼트 collector
+    private final LongObjectPagedHashMap<TopScoreDocCollector> collectors;
+    // 현재 segment 의 bucket 별 leaf collector
+    private LongObjectPagedHashMap<LeafCollector> leafCollectors;
+
+    NormalizedTopHitsAggregator(
+            String name,
+            int size,
+            String normalizerType,
+            float minScore,
+            float maxScore,
+            float factor,
+            String factorMode,
+            String minMaxSameScoreStrategy,
+            float rankConstant,
+            AggregationContext context,
+            Aggregator parent,
+            Map<String, Object> metadata) throws IOException {
+        super(name, context, parent, metadata);
+        this.size = size;
+        this.normalizerType = normalizerType;
+        this.minScore = minScore;
+        this.maxScore = maxScore;
+        this.factor = factor;
+        this.factorMode = factorMode;
+        this.minMaxSameScoreStrategy = minMaxSameScoreStrategy;
+        this.rankConstant = rankConstant;
+        this.indexName = context.getIndexSettings().getIndex().getName();
+        this.aggregationContext = context;
+        this.collectors = new LongObjectPagedHashMap<>(1, context.bigArrays());
+    }
+
+    @Override
+    public ScoreMode scoreMode() {
+        return ScoreMode.COMPLETE;
+    }
+
+    @Override
+    public LeafBucketCollector getLeafCollector(AggregationExecutionContext aggCtx, LeafBucketCollector sub) throws IOException {
+        LeafReaderContext leafReaderContext = aggCtx.getLeafReaderContext();
+        Releasables.close(leafCollectors);
+        leafCollectors = new LongObjectPagedHashMap<>(1, aggregationContext.bigArrays());
+
+        return new LeafBucketCollectorBase(sub, null) {
+
+            Scorable scorer;
+
+            @Override
+            public void setScorer(Scorable scorer) throws IOException {
+                this.scorer = scorer;
+                super.setScorer(scorer);
+                for (LongObjectPagedHashMap.Cursor<LeafCollector> cursor : leafCollectors) {
+                    cursor.value.setScorer(scorer);
+                }
+            }
+
+            @Override
+            public void collect(int docId, long bucket) throws IOException {
+                TopScoreDocCollector collector = collectors.get(bucket);
+                if (collector == null) {
+                    collector = TopScoreDocCollector.create(size, Integer.MAX_VALUE);
+                    collectors.put(bucket, collector);
+                }
+                LeafCollector leafCollector = leafCollectors.get(bucket);
+                if (leafCollector == null) {
+                    leafCollector = collector.getLeafCollector(leafReaderContext);
+                    if (scorer != null) {
+                        leafCollector.setScorer(scorer);
+                    }
+                    leafCollectors.put(bucket, leafCollector);
+                }
+                leafCollector.collect(docId);
+            }
+        };
+    }
+
+    /**
+     * bucket 의 상위 도큐먼트를 원본 score 로 반환합니다.
+     * (정규화는 모든 shard 결과를 병합한 최종 reduce 에서 bucket 단위로 한 번 실행)
+     *
+     * @param owningBucketOrdinal
+     * @return
+     * @throws IOException
+     */
+    @Override
+    public InternalAggregation buildAggregation(long owningBucketOrdinal) throws IOException {
+        TopScoreDocCollector collector = collectors.get(owningBucketOrdinal);
+        if (collector == null || size == 0) {
+            return buildEmptyAggregation();
+        }
+
+        TopDocs topDocs = collector.topDocs();
+        StoredFields storedFields = aggregationContext.searcher().getIndexReader().storedFields();
+        List<InternalNormalizedTopHits.NormalizedHit> hits = new ArrayList<>(topDocs.scoreDocs.length);
+        for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+            FieldsVisitor fieldsVisitor = new FieldsVisitor(false);
+            storedFields.document(scoreDoc.doc, fieldsVisitor);
+            hits.add(new InternalNormalizedTopHits.NormalizedHit(indexName, fieldsVisitor.id(), scoreDoc.score));
+        }
+        return buildAggregation(hits);
+    }
+
+    @Override
+    public InternalAggregation buildEmptyAggregation() {
+        return buildAggregation(Collections.emptyList());
+    }
+
+    private InternalNormalizedTopHits buildAggregation(List<InternalNormalizedTopHits.NormalizedHit> hits) {
+        return new InternalNormalizedTopHits(
+                name, size, normalizerType, minScore, maxScore, factor, factorMode, minMaxSameScoreStrategy, rankConstant,
+                false, hits, metadata());
+    }
+
+    @Override
+    protected void doClose() {
+        Releasables.close(collectors, leafCollectors);
+    }
+}
@@ -0,0 +1,57 @@
+package elasticsearch.custom.plugin.aggregation;
+
+import org.elasticsearch.search.aggregations.Aggregator;
+import org.elasticsearch.search.aggregations.AggregatorFactories;
+import org.elasticsearch.search.aggregations.AggregatorFactory;
+import org.elasticsearch.search.aggregations.CardinalityUpperBound;
+import org.elasticsearch.search.aggregations.support.AggregationContext;
+
+import java.io.IOException;
+import java.util.Map;
+
+class NormalizedTopHitsAggregatorFactory extends AggregatorFactory {
+
+    private final int size;
+    private final String normalizerType;
+    private final float minScore;
+    private final float maxScore;
+    private final float factor;
+    private final String factorMode;
+    private final String minMaxSameScoreStrategy;
+    private final float rankConstant;
+
+    NormalizedTopHitsAggregatorFactory(
+            String name,
+            int size,
+            String normalizerType,
+            float minScore,
+            float maxScore,
+            float factor,
+            String factorMode,
+            String minMaxSameScoreStrategy,
+            float rankConstant,
+            AggregationContext context,
+            AggregatorFactory parent,
+            AggregatorFactories.Builder subFactoriesBuilder,
+            Map<String, Object> metadata) throws IOException {
+        super(name, context, parent, subFactoriesBuilder, metadata);
+        this.size = size;
+        this.normalizerType = normalizerType;
+        this.minScore = minScore;
+        this.maxScore = maxScore;
+        this.factor = factor;
+        this.factorMode = factorMode;
+        this.minMaxSameScoreStrategy = minMaxSameScoreStrategy;
+        this.rankConstant = rankConstant;
+    }
+
+    @Override
+    protected Aggregator createInternal(
+            Aggregator parent,
+            CardinalityUpperBound cardinality,
+            Map<String, Object> metadata) throws IOException {
+        return new NormalizedTopHitsAggregator(
+                name, size, normalizerType, minScore, maxScore, factor, factorMode, minMaxSameScoreStrategy, rankConstant,
+                context, parent, metadata);
+    }
+}
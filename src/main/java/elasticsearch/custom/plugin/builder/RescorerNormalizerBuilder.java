@@ -4,16 +4,26 @@ import elasticsearch.custom.plugin.enumeration.NormalizerFactorOperation;
 import elasticsearch.custom.plugin.enumeration.NormalizerType;
 import elasticsearch.custom.plugin.enumeration.MinMaxSameScoreStrategy;
 import elasticsearch.custom.plugin.rescorer.NormalizedCustomRescorer;
+import elasticsearch.custom.plugin.rescorer.distribution.ScoreDistribution;
+import elasticsearch.custom.plugin.rescorer.distribution.ScoreDistributionRegistry;
+import elasticsearch.custom.plugin.rescorer.pipeline.NormalizerStep;
 import org.elasticsearch.TransportVersion;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.query.QueryRewriteContext;
 import org.elasticsearch.index.query.SearchExecutionContext;
+import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.search.rescore.RescoreContext;
 import org.elasticsearch.search.rescore.RescorerBuilder;
 import org.elasticsearch.xcontent.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 public class RescorerNormalizerBuilder extends RescorerBuilder<RescorerNormalizerBuilder> {
 
@@ -26,6 +36,15 @@ public class RescorerNormalizerBuilder extends RescorerBuilder<RescorerNormalize
     private static final ParseField FACTOR = new ParseField("factor");
     private static final ParseField FACTOR_MODE = new ParseField("factor_mode");
     private static final ParseField MIN_MAX_SAME_SCORE_STRATEGY = new ParseField("min_max_same_score_strategy");
+    private static final ParseField STABLE_WEIGHT = new ParseField("stable_weight");
+    private static final ParseField STABLE_DECAY = new ParseField("stable_decay");
+    private static final ParseField RANK_CONSTANT = new ParseField("rank_constant");
+    private static final ParseField STEPS = new ParseField("steps");
+    private static final ParseField LATENCY_BUDGET = new ParseField("latency_budget");
+
+    // 요청에 latency_budget 이 없을 경우 사용하는 노드 기본값 (0 일 경우 제한 없음)
+    public static final Setting<TimeValue> LATENCY_BUDGET_SETTING = Setting.timeSetting(
+            "score_normalizer.latency_budget", TimeValue.ZERO, Setting.Property.NodeScope);
 
     private static final float DEFAULT_MIN_SCORE_V = 0.0f;
     private static final float DEFAULT_MAX_SCORE_V = 1.0f;
@@ -33,6 +52,9 @@ public class RescorerNormalizerBuilder extends RescorerBuilder<RescorerNormalize
     private static final String DEFAULT_MIN_MAX_SAME_SCORE_STRATEGY = MinMaxSameScoreStrategy.avg.name();
     private static final NormalizerType DEFAULT_NORMALIZER_TYPE = NormalizerType.min_max;
     private static final String DEFAULT_FACTOR_MODE = NormalizerFactorOperation.increase_by_percent.name();
+    private static final float DEFAULT_STABLE_WEIGHT = 0.5f;
+    private static final float DEFAULT_STABLE_DECAY = 0.05f;
+    public static final float DEFAULT_RANK_CONSTANT = 60.0f;
 
     // 변수 설정
     private float minScore;
@@ -41,6 +63,11 @@ public class RescorerNormalizerBuilder extends RescorerBuilder<RescorerNormalize
     private float factor;
     private String factorMode;
     private String minMaxSameScoreStrategy;
+    private float stableWeight = DEFAULT_STABLE_WEIGHT;
+    private float stableDecay = DEFAULT_STABLE_DECAY;
+    private float rankConstant = DEFAULT_RANK_CONSTANT;
+    private List<NormalizerStep> steps = Collections.emptyList();
+    private TimeValue latencyBudget;
 
     // ObjectParser 설정
     private static final ObjectParser<NormalizerParserBuilder, Void> NORMALIZER_PARSER = new ObjectParser<>(NAME, null);
@@ -52,6 +79,11 @@ public class RescorerNormalizerBuilder extends RescorerBuilder<RescorerNormalize
         NORMALIZER_PARSER.declareFloat(NormalizerParserBuilder::setFactor, FACTOR);
         NORMALIZER_PARSER.declareString(NormalizerParserBuilder::setFactorMode, FACTOR_MODE);
         NORMALIZER_PARSER.declareString(NormalizerParserBuilder::setMinMaxSameScoreStrategy, MIN_MAX_SAME_SCORE_STRATEGY);
+        NORMALIZER_PARSER.declareFloat(NormalizerParserBuilder::setStableWeight, STABLE_WEIGHT);
+        NORMALIZER_PARSER.declareFloat(NormalizerParserBuilder::setStableDecay, STABLE_DECAY);
+        NORMALIZER_PARSER.declareFloat(NormalizerParserBuilder::setRankConstant, RANK_CONSTANT);
+        NORMALIZER_PARSER.declareObjectArray(NormalizerParserBuilder::setSteps, (p, c) -> NormalizerStep.fromXContent(p), STEPS);
+        NORMALIZER_PARSER.declareString(NormalizerParserBuilder::setLatencyBudget, LATENCY_BUDGET);
     }
 
     // 기본 생성자
@@ -65,6 +97,15 @@ public class RescorerNormalizerBuilder extends RescorerBuilder<RescorerNormalize
         factor = in.readOptionalFloat();
         factorMode = in.readOptionalString();
         minMaxSameScoreStrategy = in.readOptionalString();
+        stableWeight = in.readFloat();
+        stableDecay = in.readFloat();
+        rankConstant = in.readFloat();
+        int stepsSize = in.readVInt();
+        steps = new ArrayList<>(stepsSize);
+        for (int i = 0; i < stepsSize; i++) {
+            steps.add(NormalizerStep.readFrom(in));
+        }
+        latencyBudget = in.readOptionalTimeValue();
     }
 
     @Override
@@ -75,6 +116,14 @@ public class RescorerNormalizerBuilder extends RescorerBuilder<RescorerNormalize
         streamOutput.writeFloat(factor);
         streamOutput.writeString(factorMode);
         streamOutput.writeString(minMaxSameScoreStrategy);
+        streamOutput.writeFloat(stableWeight);
+        streamOutput.writeFloat(stableDecay);
+        streamOutput.writeFloat(rankConstant);
+        streamOutput.writeVInt(steps.size());
+        for (NormalizerStep step : steps) {
+            step.writeTo(streamOutput);
+        }
+        streamOutput.writeOptionalTimeValue(latencyBudget);
     }
 
     @Override
@@ -86,6 +135,19 @@ public class RescorerNormalizerBuilder extends RescorerBuilder<RescorerNormalize
         xContentBuilder.field(FACTOR.getPreferredName(), factor);
         xContentBuilder.field(FACTOR_MODE.getPreferredName(), factorMode);
         xContentBuilder.field(MIN_MAX_SAME_SCORE_STRATEGY.getPreferredName(), minMaxSameScoreStrategy);
+        xContentBuilder.field(STABLE_WEIGHT.getPreferredName(), stableWeight);
+        xContentBuilder.field(STABLE_DECAY.getPreferredName(), stableDecay);
+        xContentBuilder.field(RANK_CONSTANT.getPreferredName(), rankConstant);
+        if (steps.isEmpty() == false) {
+            xContentBuilder.startArray(STEPS.getPreferredName());
+            for (NormalizerStep step : steps) {
+                step.toXContent(xContentBuilder, params);
+            }
+            xContentBuilder.endArray();
+        }
+        if (latencyBudget != null) {
+            xContentBuilder.field(LATENCY_BUDGET.getPreferredName(), latencyBudget.getStringRep());
+        }
         xContentBuilder.endObject();
     }
 
@@ -98,13 +160,45 @@ public class RescorerNormalizerBuilder extends RescorerBuilder<RescorerNormalize
 
     @Override
     protected RescoreContext innerBuildContext(int windowSize, SearchExecutionContext searchExecutionContext) throws IOException {
+        // stable 모드일 경우 shard 별 누적 score 분포 참조
+        ScoreDistribution scoreDistribution = null;
+        if (NormalizerType.stable.name().equals(normalizerType)) {
+            scoreDistribution = ScoreDistributionRegistry.INSTANCE.get(
+                    new ShardId(searchExecutionContext.getFullyQualifiedIndex(), searchExecutionContext.getShardId()));
+        }
+
+        // latency budget 미지정 시 노드 설정값 사용
+        TimeValue budget = latencyBudget != null
+                ? latencyBudget
+                : LATENCY_BUDGET_SETTING.get(searchExecutionContext.getIndexSettings().getNodeSettings());
+
+        // normalizer scratch buffer 는 request circuit breaker 에 집계되는 BigArrays 로부터 할당
         NormalizedCustomRescorer.NormalizerRescorerContext normalizerRescorerContext =
                 new NormalizedCustomRescorer.NormalizerRescorerContext(
-                        windowSize, normalizerType, minScore, maxScore, factor, factorMode, minMaxSameScoreStrategy
+                        windowSize, normalizerType, minScore, maxScore, factor, factorMode, minMaxSameScoreStrategy,
+                        stableWeight, stableDecay, rankConstant, scoreDistribution, steps, budget,
+                        searchExecutionContext.bigArrays().withCircuitBreaking()
                 );
         return normalizerRescorerContext;
     }
 
+    /**
+     * search 요청 없이 normalizer 를 실행하기 위한 context 생성. (_simulate)
+     * shard 누적 분포에 의존하는 stable 모드는 지원하지 않으며, latency budget 은 적용하지 않습니다.
+     *
+     * @param windowSize    정규화 대상 score 수
+     * @param bigArrays     scratch buffer 할당용 BigArrays
+     * @return
+     */
+    public NormalizedCustomRescorer.NormalizerRescorerContext buildSimulationContext(int windowSize, BigArrays bigArrays) {
+        if (NormalizerType.stable.name().equals(normalizerType)) {
+            throw new IllegalArgumentException("stable normalizer_type cannot be simulated");
+        }
+        return new NormalizedCustomRescorer.NormalizerRescorerContext(
+                windowSize, normalizerType, minScore, maxScore, factor, factorMode, minMaxSameScoreStrategy,
+                stableWeight, stableDecay, rankConstant, null, steps, TimeValue.ZERO, bigArrays);
+    }
+
     @Override
     public String getWriteableName() {
         return NAME;
@@ -144,6 +238,26 @@ public class RescorerNormalizerBuilder extends RescorerBuilder<RescorerNormalize
         this.minMaxSameScoreStrategy = minMaxSameScoreStrategy;
     }
 
+    public void setStableWeight(float stableWeight) {
+        this.stableWeight = stableWeight;
+    }
+
+    public void setStableDecay(float stableDecay) {
+        this.stableDecay = stableDecay;
+    }
+
+    public void setRankConstant(float rankConstant) {
+        this.rankConstant = rankConstant;
+    }
+
+    public void setSteps(List<NormalizerStep> steps) {
+        this.steps = steps;
+    }
+
+    public void setLatencyBudget(TimeValue latencyBudget) {
+        this.latencyBudget = latencyBudget;
+    }
+
     private static class NormalizerParserBuilder {
         private float minScore = DEFAULT_MIN_SCORE_V;
         private float maxScore = DEFAULT_MAX_SCORE_V;
@@ -151,6 +265,11 @@ public class RescorerNormalizerBuilder extends RescorerBuilder<RescorerNormalize
         private float factor = DEFAULT_FACTOR;
         private String factorMode = DEFAULT_FACTOR_MODE;
         private String minMaxSameScoreStrategy = DEFAULT_MIN_MAX_SAME_SCORE_STRATEGY;
+        private float stableWeight = DEFAULT_STABLE_WEIGHT;
+        private float stableDecay = DEFAULT_STABLE_DECAY;
+        private float rankConstant = DEFAULT_RANK_CONSTANT;
+        private List<NormalizerStep> steps = Collections.emptyList();
+        private TimeValue latencyBudget;
 
         RescorerNormalizerBuilder build() {
             RescorerNormalizerBuilder builder = new RescorerNormalizerBuilder();
@@ -160,6 +279,11 @@ public class RescorerNormalizerBuilder extends RescorerBuilder<RescorerNormalize
             builder.setFactor(factor);
             builder.setFactorMode(factorMode);
             builder.setMinMaxSameScoreStrategy(minMaxSameScoreStrategy);
+            builder.setStableWeight(stableWeight);
+            builder.setStableDecay(stableDecay);
+            builder.setRankConstant(rankConstant);
+            builder.setSteps(steps);
+            builder.setLatencyBudget(latencyBudget);
             return builder;
         }
 
@@ -191,5 +315,25 @@ public class RescorerNormalizerBuilder extends RescorerBuilder<RescorerNormalize
         public void setMinMaxSameScoreStrategy(String minMaxSameScoreStrategy) {
             this.minMaxSameScoreStrategy = minMaxSameScoreStrategy;
         }
+
+        public void setStableWeight(float stableWeight) {
+            this.stableWeight = stableWeight;
+        }
+
+        public void setStableDecay(float stableDecay) {
+            this.stableDecay = stableDecay;
+        }
+
+        public void setRankConstant(float rankConstant) {
+            this.rankConstant = rankConstant;
+        }
+
+        public void setSteps(List<NormalizerStep> steps) {
+            this.steps = steps;
+        }
+
+        public void setLatencyBudget(String latencyBudget) {
+            this.latencyBudget = TimeValue.parseTimeValue(latencyBudget, LATENCY_BUDGET.getPreferredName());
+        }
     }
 }
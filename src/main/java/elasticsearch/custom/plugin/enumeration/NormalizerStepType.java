@@ -0,0 +1,18 @@
+package elasticsearch.custom.plugin.enumeration;
+
+public enum NormalizerStepType {
+    normalize,
+    clip,
+    squash,
+    scale,
+    factor;
+
+    public static boolean isValid(String stepType) {
+        try {
+            NormalizerStepType.valueOf(stepType);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return true;
+    }
+}
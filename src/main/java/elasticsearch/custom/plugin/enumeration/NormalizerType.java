@@ -3,7 +3,11 @@ package elasticsearch.custom.plugin.enumeration;
 public enum NormalizerType {
     min_max,
     z_score,
-    robust;
+    robust,
+    robust_approximate,
+    stable,
+    percentile_rank,
+    reciprocal_rank;
 
     public static boolean isValid(String normalizerType) {
         try {
@@ -0,0 +1,6 @@
+package elasticsearch.custom.plugin.enumeration;
+
+public enum SquashFunction {
+    sigmoid,
+    tanh
+}
@@ -0,0 +1,121 @@
+package elasticsearch.custom.plugin.query;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Weight;
+
+import java.io.IOException;
+import java.util.Objects;
+
+public final class NormalizedScoreQuery extends Query {
+
+    private final Query query;
+    private final float minScore;
+    private final float maxScore;
+
+    /**
+     * 내부 쿼리의 score 를 수집 단계에서 min max 정규화하는 쿼리.
+     * 정규화 기준 max score 는 rescore window 가 아닌, 각 segment scorer 가 제공하는 score 상한
+     * (Scorer.getMaxScore) 중 최댓값을 사용합니다.
+     * (정규화가 단조 증가 변환이므로 block-max WAND skipping 이 그대로 동작합니다.)
+     * score 상한은 shard 단위로 계산되므로 shard 간 정규화 기준이 다를 수 있으며,
+     * 여러 shard 의 결과를 합칠 때 score 는 shard 내부 순서만 보장합니다.
+     *
+     * @param query     내부 쿼리
+     * @param minScore  사용자 지정 min score 보정 값
+     * @param maxScore  사용자 지정 max score 보정 값
+     */
+    public NormalizedScoreQuery(Query query, float minScore, float maxScore) {
+        this.query = Objects.requireNonNull(query);
+        this.minScore = minScore;
+        this.maxScore = maxScore;
+    }
+
+    public Query getQuery() {
+        return query;
+    }
+
+    @Override
+    public Query rewrite(IndexSearcher indexSearcher) throws IOException {
+        Query rewritten = query.rewrite(indexSearcher);
+        if (rewritten != query) {
+            return new NormalizedScoreQuery(rewritten, minScore, maxScore);
+        }
+        return super.rewrite(indexSearcher);
+    }
+
+    @Override
+    public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) throws IOException {
+        Weight innerWeight = searcher.createWeight(query, scoreMode, 1.0f);
+        if (scoreMode.needsScores() == false) {
+            return innerWeight;
+        }
+
+        float upperBound = getScoreUpperBound(searcher, innerWeight);
+        float slope;
+        float offset;
+        if (upperBound > 0 && upperBound < Float.MAX_VALUE) {
+            // boost * (minScore + (maxScore - minScore) * score / upperBound)
+            slope = boost * (maxScore - minScore) / upperBound;
+            offset = boost * minScore;
+        } else {
+            // score 상한을 제공하지 않는 쿼리는 정규화 없이 boost 만 적용
+            slope = boost;
+            offset = 0.0f;
+        }
+        return new NormalizedScoreWeight(this, innerWeight, upperBound, slope, offset);
+    }
+
+    /**
+     * 모든 segment 에 대한 내부 쿼리 score 상한 계산. (segment 별 Scorer.getMaxScore 의 최댓값)
+     *
+     * @param searcher
+     * @param innerWeight
+     * @return
+     * @throws IOException
+     */
+    private static float getScoreUpperBound(IndexSearcher searcher, Weight innerWeight) throws IOException {
+        float upperBound = 0.0f;
+        for (LeafReaderContext leafReaderContext : searcher.getIndexReader().leaves()) {
+            Scorer scorer = innerWeight.scorer(leafReaderContext);
+            if (scorer == null) {
+                continue;
+            }
+            scorer.advanceShallow(0);
+            upperBound = Math.max(upperBound, scorer.getMaxScore(DocIdSetIterator.NO_MORE_DOCS));
+        }
+        return upperBound;
+    }
+
+    @Override
+    public void visit(QueryVisitor visitor) {
+        query.visit(visitor.getSubVisitor(BooleanClause.Occur.MUST, this));
+    }
+
+    @Override
+    public String toString(String field) {
+        return "normalized_score(" + query.toString(field) + ", min_score=" + minScore + ", max_score=" + maxScore + ")";
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (sameClassAs(other) == false) {
+            return false;
+        }
+        NormalizedScoreQuery that = (NormalizedScoreQuery) other;
+        return query.equals(that.query)
+                && Float.compare(minScore, that.minScore) == 0
+                && Float.compare(maxScore, that.maxScore) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(classHash(), query, minScore, maxScore);
+    }
+}
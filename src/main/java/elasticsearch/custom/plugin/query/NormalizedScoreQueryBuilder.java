@@ -0,0 +1,176 @@
+package elasticsearch.custom.plugin.query;
+
+import org.apache.lucene.search.Query;
+import org.elasticsearch.TransportVersion;
+import org.elasticsearch.TransportVersions;
+import org.elasticsearch.common.ParsingException;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.index.query.AbstractQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryRewriteContext;
+import org.elasticsearch.index.query.SearchExecutionContext;
+import org.elasticsearch.xcontent.ParseField;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.XContentParser;
+
+import java.io.IOException;
+import java.util.Objects;
+
+public class NormalizedScoreQueryBuilder extends AbstractQueryBuilder<NormalizedScoreQueryBuilder> {
+
+    // 상수 설정
+    public static final String NAME = "normalized_score";
+
+    private static final ParseField QUERY = new ParseField("query");
+    private static final ParseField MIN_SCORE = new ParseField("min_score");
+    private static final ParseField MAX_SCORE = new ParseField("max_score");
+
+    private static final float DEFAULT_MIN_SCORE_V = 0.0f;
+    private static final float DEFAULT_MAX_SCORE_V = 1.0f;
+
+    // 변수 설정
+    private final QueryBuilder query;
+    private float minScore = DEFAULT_MIN_SCORE_V;
+    private float maxScore = DEFAULT_MAX_SCORE_V;
+
+    public NormalizedScoreQueryBuilder(QueryBuilder query) {
+        if (query == null) {
+            throw new IllegalArgumentException("[" + NAME + "] requires a [" + QUERY.getPreferredName() + "]");
+        }
+        this.query = query;
+    }
+
+    public NormalizedScoreQueryBuilder(StreamInput in) throws IOException {
+        super(in);
+        query = in.readNamedWriteable(QueryBuilder.class);
+        minScore = in.readFloat();
+        maxScore = in.readFloat();
+    }
+
+    @Override
+    protected void doWriteTo(StreamOutput out) throws IOException {
+        out.writeNamedWriteable(query);
+        out.writeFloat(minScore);
+        out.writeFloat(maxScore);
+    }
+
+    @Override
+    protected void doXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject(NAME);
+        builder.field(QUERY.getPreferredName());
+        query.toXContent(builder, params);
+        builder.field(MIN_SCORE.getPreferredName(), minScore);
+        builder.field(MAX_SCORE.getPreferredName(), maxScore);
+        printBoostAndQueryName(builder);
+        builder.endObject();
+    }
+
+    public static NormalizedScoreQueryBuilder fromXContent(XContentParser parser) throws IOException {
+        QueryBuilder query = null;
+        float minScore = DEFAULT_MIN_SCORE_V;
+        float maxScore = DEFAULT_MAX_SCORE_V;
+        float boost = DEFAULT_BOOST;
+        String queryName = null;
+
+        String currentFieldName = null;
+        XContentParser.Token token;
+        while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
+            if (token == XContentParser.Token.FIELD_NAME) {
+                currentFieldName = parser.currentName();
+            } else if (token == XContentParser.Token.START_OBJECT) {
+                if (QUERY.match(currentFieldName, parser.getDeprecationHandler())) {
+                    query = parseInnerQueryBuilder(parser);
+                } else {
+                    throw new ParsingException(parser.getTokenLocation(),
+                            "[" + NAME + "] query does not support [" + currentFieldName + "]");
+                }
+            } else if (token.isValue()) {
+                if (MIN_SCORE.match(currentFieldName, parser.getDeprecationHandler())) {
+                    minScore = parser.floatValue();
+                } else if (MAX_SCORE.match(currentFieldName, parser.getDeprecationHandler())) {
+                    maxScore = parser.floatValue();
+                } else if (BOOST_FIELD.match(currentFieldName, parser.getDeprecationHandler())) {
+                    boost = parser.floatValue();
+                } else if (NAME_FIELD.match(currentFieldName, parser.getDeprecationHandler())) {
+                    queryName = parser.text();
+                } else {
+                    throw new ParsingException(parser.getTokenLocation(),
+                            "[" + NAME + "] query does not support [" + currentFieldName + "]");
+                }
+            } else {
+                throw new ParsingException(parser.getTokenLocation(), "unexpected token [" + token + "]");
+            }
+        }
+        if (query == null) {
+            throw new ParsingException(parser.getTokenLocation(),
+                    "[" + NAME + "] requires a [" + QUERY.getPreferredName() + "]");
+        }
+
+        NormalizedScoreQueryBuilder builder = new NormalizedScoreQueryBuilder(query);
+        builder.setMinScore(minScore);
+        builder.setMaxScore(maxScore);
+        builder.boost(boost);
+        builder.queryName(queryName);
+        return builder;
+    }
+
+    @Override
+    protected Query doToQuery(SearchExecutionContext context) throws IOException {
+        if (minScore < 0) {
+            // 음수 score 는 Lucene 이 허용하지 않으며 최소 경쟁 score 역변환(WAND)이 깨짐
+            throw new IllegalArgumentException("minScore value cannot be negative");
+        }
+        if (minScore >= maxScore) {
+            throw new IllegalArgumentException(
+                    "maxScore value cannot be less than or equal to minScore value");
+        }
+        return new NormalizedScoreQuery(query.toQuery(context), minScore, maxScore);
+    }
+
+    @Override
+    protected QueryBuilder doRewrite(QueryRewriteContext queryRewriteContext) throws IOException {
+        QueryBuilder rewritten = query.rewrite(queryRewriteContext);
+        if (rewritten != query) {
+            NormalizedScoreQueryBuilder builder = new NormalizedScoreQueryBuilder(rewritten);
+            builder.setMinScore(minScore);
+            builder.setMaxScore(maxScore);
+            return builder;
+        }
+        return this;
+    }
+
+    @Override
+    protected boolean doEquals(NormalizedScoreQueryBuilder other) {
+        return Objects.equals(query, other.query)
+                && Float.compare(minScore, other.minScore) == 0
+                && Float.compare(maxScore, other.maxScore) == 0;
+    }
+
+    @Override
+    protected int doHashCode() {
+        return Objects.hash(query, minScore, maxScore);
+    }
+
+    @Override
+    public String getWriteableName() {
+        return NAME;
+    }
+
+    @Override
+    public TransportVersion getMinimalSupportedVersion() {
+        return TransportVersions.V_8_0_0;
+    }
+
+    public QueryBuilder getQuery() {
+        return query;
+    }
+
+    public void setMinScore(float minScore) {
+        this.minScore = minScore;
+    }
+
+    public void setMaxScore(float maxScore) {
+        this.maxScore = maxScore;
+    }
+}
@@ -0,0 +1,105 @@
+package elasticsearch.custom.plugin.query;
+
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.TwoPhaseIterator;
+import org.apache.lucene.search.Weight;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+
+final class NormalizedScoreScorer extends Scorer {
+
+    private final Scorer in;
+    private final float slope;
+    private final float offset;
+
+    /**
+     * 내부 scorer 의 score 를 offset + slope * score 로 변환합니다. (slope >= 0, 단조 증가)
+     * score 상한과 최소 경쟁 score 도 같은 변환(역변환)으로 전달하여 block-max WAND 를 유지합니다.
+     * (offset 이 음수이면 역변환 값이 0 이하가 되어 skipping 이 꺼지므로 min_score 는 0 이상이어야 합니다.)
+     *
+     * @param weight
+     * @param in
+     * @param slope
+     * @param offset
+     */
+    NormalizedScoreScorer(Weight weight, Scorer in, float slope, float offset) {
+        super(weight);
+        this.in = in;
+        this.slope = slope;
+        this.offset = offset;
+    }
+
+    @Override
+    public int docID() {
+        return in.docID();
+    }
+
+    @Override
+    public DocIdSetIterator iterator() {
+        return in.iterator();
+    }
+
+    @Override
+    public TwoPhaseIterator twoPhaseIterator() {
+        return in.twoPhaseIterator();
+    }
+
+    @Override
+    public float score() throws IOException {
+        return normalize(in.score(), slope, offset);
+    }
+
+    @Override
+    public int advanceShallow(int target) throws IOException {
+        return in.advanceShallow(target);
+    }
+
+    @Override
+    public float getMaxScore(int upTo) throws IOException {
+        return normalize(in.getMaxScore(upTo), slope, offset);
+    }
+
+    @Override
+    public void setMinCompetitiveScore(float minScore) throws IOException {
+        if (slope <= 0) {
+            return;
+        }
+        float innerMinScore = innerMinCompetitiveScore(minScore, slope, offset);
+        if (innerMinScore > 0) {
+            in.setMinCompetitiveScore(innerMinScore);
+        }
+    }
+
+    static float normalize(float score, float slope, float offset) {
+        return offset + slope * score;
+    }
+
+    /**
+     * 정규화 score 최소 경쟁 값을 내부 scorer score 기준으로 역변환.
+     * normalize(x) >= minScore 인 모든 x 에 대해 x >= 반환값을 보장합니다.
+     * (float 반올림은 단조 증가이므로 normalize 도 단조 증가, 반환값 직전 float 이 경쟁 가능하지 않으면 충분)
+     *
+     * @param minScore
+     * @param slope     0 보다 큰 값
+     * @param offset
+     * @return
+     */
+    static float innerMinCompetitiveScore(float minScore, float slope, float offset) {
+        // 추정값 : 반올림 오차만큼 낮춘 역변환
+        double innerBound = ((double) minScore - 2.0 * Math.ulp(minScore) - offset) / slope;
+        float innerMinScore = Math.nextDown((float) innerBound);
+        // 추정값 직전 float 이 경쟁 가능하면 내려가며 보정 (오차 여유가 있어 대부분 반복 없음)
+        while (innerMinScore > 0 && normalize(Math.nextDown(innerMinScore), slope, offset) >= minScore) {
+            innerMinScore = Math.nextDown(innerMinScore);
+        }
+        return innerMinScore;
+    }
+
+    @Override
+    public Collection<ChildScorable> getChildren() {
+        return Collections.singleton(new ChildScorable(in, "NORMALIZED"));
+    }
+}
@@ -0,0 +1,58 @@
+package elasticsearch.custom.plugin.query;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.Matches;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Weight;
+
+import java.io.IOException;
+
+final class NormalizedScoreWeight extends Weight {
+
+    private final Weight innerWeight;
+    private final float upperBound;
+    private final float slope;
+    private final float offset;
+
+    NormalizedScoreWeight(Query query, Weight innerWeight, float upperBound, float slope, float offset) {
+        super(query);
+        this.innerWeight = innerWeight;
+        this.upperBound = upperBound;
+        this.slope = slope;
+        this.offset = offset;
+    }
+
+    @Override
+    public Scorer scorer(LeafReaderContext context) throws IOException {
+        Scorer innerScorer = innerWeight.scorer(context);
+        if (innerScorer == null) {
+            return null;
+        }
+        return new NormalizedScoreScorer(this, innerScorer, slope, offset);
+    }
+
+    @Override
+    public Explanation explain(LeafReaderContext context, int doc) throws IOException {
+        Explanation innerExplanation = innerWeight.explain(context, doc);
+        if (innerExplanation.isMatch() == false) {
+            return innerExplanation;
+        }
+        float score = offset + slope * innerExplanation.getValue().floatValue();
+        return Explanation.match(
+                score,
+                "normalized_score using score upper bound [" + upperBound + "] of:",
+                innerExplanation);
+    }
+
+    @Override
+    public Matches matches(LeafReaderContext context, int doc) throws IOException {
+        return innerWeight.matches(context, doc);
+    }
+
+    @Override
+    public boolean isCacheable(LeafReaderContext ctx) {
+        return innerWeight.isCacheable(ctx);
+    }
+}
@@ -1,15 +1,28 @@
 package elasticsearch.custom.plugin.rescorer;
 
 import elasticsearch.custom.plugin.enumeration.NormalizerType;
+import elasticsearch.custom.plugin.rescorer.budget.LatencyBudgetPlan;
+import elasticsearch.custom.plugin.rescorer.budget.NormalizerCostModel;
+import elasticsearch.custom.plugin.rescorer.distribution.ScoreDistribution;
 import elasticsearch.custom.plugin.rescorer.normalizer.CustomNormalizerSelector;
+import elasticsearch.custom.plugin.rescorer.normalizer.NormalizationStatistics;
+import elasticsearch.custom.plugin.rescorer.normalizer.NormalizerScratch;
+import elasticsearch.custom.plugin.rescorer.pipeline.NormalizerPipeline;
+import elasticsearch.custom.plugin.rescorer.pipeline.NormalizerStep;
 import org.apache.lucene.search.Explanation;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TopDocs;
+import org.elasticsearch.common.logging.HeaderWarning;
+import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.search.rescore.RescoreContext;
 import org.elasticsearch.search.rescore.Rescorer;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 import static java.util.Collections.singletonList;
 
@@ -38,6 +51,18 @@ public class NormalizedCustomRescorer implements Rescorer {
         float factor = context.getFactor();
         String operation = factorMode + " using " + factor + " on:";
 
+        if (context.getSteps().isEmpty() == false) {
+            StringBuilder steps = new StringBuilder();
+            for (NormalizerStep step : context.getSteps()) {
+                steps.append(steps.length() == 0 ? "" : " -> ").append(step.getType().name());
+            }
+            return Explanation.match(
+                    0.0f,
+                    "Final score -> normalize using pipeline, " + steps + " on:",
+                    singletonList(explanation)
+            );
+        }
+
         return Explanation.match(
                 0.0f,
                 "Final score -> normalize using, " + context.getNormalizerType() + " and then " + operation,
@@ -75,13 +100,135 @@ public class NormalizedCustomRescorer implements Rescorer {
         String normalizerType = context.normalizerType;
 
         // context에 따른 documents Normalize 실행.
-        topDocs = CustomNormalizerSelector
-                .getCustomNormalizer(NormalizerType.valueOf(normalizerType))
-                .normalize(topDocs, context);
+        // (scratch buffer 는 search thread 별로 재사용하며, 큰 window 만 BigArrays page 로 할당하여 request circuit breaker 에 집계 후 종료 시 반환)
+        try (NormalizerScratch scratch = new NormalizerScratch(context.getBigArrays())) {
+            if (context.getSteps().isEmpty() == false) {
+                // steps 지정 시 단계들을 하나의 pipeline 으로 합쳐 한 번에 적용 (normalizer_type, factor 무시)
+                return NormalizerPipeline.execute(topDocs, context.getSteps(), scratch, context.getStatistics());
+            }
+            topDocs = normalizeWithinBudget(topDocs, context, NormalizerType.valueOf(normalizerType), scratch);
+        }
+
+        return topDocs;
+    }
+
+    /**
+     * latency budget 내에서 정규화를 실행합니다.
+     * 측정된 도큐먼트 당 비용으로 예상 소요 시간이 budget 을 넘으면 더 저렴한 모드로 대체하거나
+     * window 앞부분(prefix)만 정규화하며, 대체 내역은 응답 Warning header 와 stats 에 기록합니다.
+     * (prefix 이후 도큐먼트는 선형 보간으로 순서 유지, normalizePrefix 참고)
+     *
+     * @param topDocs   각 샤드에서 전달 받은 상위 매칭 도큐먼트
+     * @param context   Rescorer context
+     * @param requested 요청된 정규화 모드
+     * @param scratch   작업용 scratch buffer
+     * @return
+     */
+    private static TopDocs normalizeWithinBudget(
+            TopDocs topDocs,
+            NormalizerRescorerContext context,
+            NormalizerType requested,
+            NormalizerScratch scratch) {
+
+        ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+        LatencyBudgetPlan plan = LatencyBudgetPlan.plan(
+                requested, scoreDocs.length, context.getLatencyBudget().nanos(), NormalizerCostModel.INSTANCE);
+        NormalizerType normalizerType = plan.getNormalizerType();
+        // prefix 만 정규화할 경우 보간 기준점 2 개 이상 확보
+        int prefixSize = plan.getPrefixSize() < scoreDocs.length ? Math.max(plan.getPrefixSize(), 2) : scoreDocs.length;
+
+        if (normalizerType != requested || prefixSize < scoreDocs.length) {
+            NormalizerCostModel.INSTANCE.recordDowngrade(requested, normalizerType, prefixSize < scoreDocs.length);
+            HeaderWarning.addWarning(
+                    "score_normalizer [{}] downgraded to [{}] normalizing [{}] of [{}] docs to meet latency_budget [{}]",
+                    requested.name(), normalizerType.name(), prefixSize, scoreDocs.length, context.getLatencyBudget());
+        }
 
+        long start = System.nanoTime();
+        normalizePrefix(topDocs, context, normalizerType, prefixSize, scratch);
+        NormalizerCostModel.INSTANCE.record(normalizerType, prefixSize, System.nanoTime() - start);
         return topDocs;
     }
 
+    /**
+     * window 앞부분(prefix)만 정규화합니다. (prefixSize 가 window 크기 이상일 경우 전체 정규화)
+     * prefix 마지막 자리에 window 최소 score 도큐먼트를 넣어 정규화 범위가 window 전체를 포함하도록 하고,
+     * 정규화되지 않은 도큐먼트는 prefix 마지막 도큐먼트와 window 최소 도큐먼트의 정규화 score 사이로
+     * 선형 보간하여 도큐먼트 당 O(1) 로 순서를 유지합니다. (min_max 의 경우 window 전체 정규화 결과와 동일)
+     *
+     * @param topDocs           score 내림차순 window
+     * @param context           Rescorer context
+     * @param normalizerType    정규화 모드
+     * @param prefixSize        정규화 도큐먼트 수 (window 보다 작을 경우 2 이상)
+     * @param scratch           작업용 scratch buffer
+     */
+    static void normalizePrefix(
+            TopDocs topDocs,
+            NormalizerRescorerContext context,
+            NormalizerType normalizerType,
+            int prefixSize,
+            NormalizerScratch scratch) {
+
+        ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+        if (prefixSize >= scoreDocs.length) {
+            CustomNormalizerSelector
+                    .getCustomNormalizer(normalizerType)
+                    .normalize(topDocs, context, scratch);
+            return;
+        }
+
+        // 상위 (prefixSize - 1) 개 + window 최소 score 도큐먼트 정규화
+        ScoreDoc[] prefix = Arrays.copyOf(scoreDocs, prefixSize);
+        prefix[prefixSize - 1] = scoreDocs[scoreDocs.length - 1];
+        ScoreDoc upper = prefix[prefixSize - 2];
+        ScoreDoc lower = prefix[prefixSize - 1];
+        float upperScore = upper.score;
+        float lowerScore = lower.score;
+
+        CustomNormalizerSelector
+                .getCustomNormalizer(normalizerType)
+                .normalize(new TopDocs(topDocs.totalHits, prefix), context, scratch);
+
+        // 정규화되지 않은 도큐먼트 (score 가 lowerScore ~ upperScore 사이) 는 두 기준점의 정규화 score 사이로 선형 보간
+        float normalizedUpper = upper.score;
+        float normalizedLower = lower.score;
+        float clampMin = Math.min(normalizedLower, normalizedUpper);
+        float clampMax = Math.max(normalizedLower, normalizedUpper);
+        for (int i = prefixSize - 1; i < scoreDocs.length - 1; i++) {
+            scoreDocs[i].score = interpolate(
+                    scoreDocs[i].score, lowerScore, upperScore, normalizedLower, normalizedUpper, clampMin, clampMax);
+        }
+    }
+
+    /**
+     * 원본 score 를 두 기준점 (lowerScore -> normalizedLower, upperScore -> normalizedUpper) 의 선형 변환으로 사상.
+     * (두 기준점의 정규화 score 범위로 보정, 기준점 원본 score 가 같을 경우 normalizedUpper 반환)
+     *
+     * @param score             원본 score
+     * @param lowerScore        하단 기준점 원본 score
+     * @param upperScore        상단 기준점 원본 score
+     * @param normalizedLower   하단 기준점 정규화 score
+     * @param normalizedUpper   상단 기준점 정규화 score
+     * @param clampMin          보정 하한
+     * @param clampMax          보정 상한
+     * @return
+     */
+    static float interpolate(
+            float score,
+            float lowerScore,
+            float upperScore,
+            float normalizedLower,
+            float normalizedUpper,
+            float clampMin,
+            float clampMax) {
+        if (upperScore <= lowerScore) {
+            return normalizedUpper;
+        }
+        float interpolated = normalizedLower
+                + (score - lowerScore) * (normalizedUpper - normalizedLower) / (upperScore - lowerScore);
+        return Math.max(clampMin, Math.min(clampMax, interpolated));
+    }
+
     public static class NormalizerRescorerContext extends RescoreContext {
         private String normalizerType;
         private float minScore;
@@ -89,6 +236,14 @@ public class NormalizedCustomRescorer implements Rescorer {
         private float factor;
         private String factorMode;
         private String minMaxSameScoreStrategy;
+        private float stableWeight;
+        private float stableDecay;
+        private float rankConstant;
+        private final ScoreDistribution scoreDistribution;
+        private final List<NormalizerStep> steps;
+        private final TimeValue latencyBudget;
+        private final BigArrays bigArrays;
+        private NormalizationStatistics statistics;
 
         public NormalizerRescorerContext(
                 int windowSize,
@@ -97,7 +252,14 @@ public class NormalizedCustomRescorer implements Rescorer {
                 @Nullable float maxScore,
                 @Nullable float factor,
                 @Nullable String factorMode,
-                @Nullable String minMaxSameScoreStrategy) {
+                @Nullable String minMaxSameScoreStrategy,
+                float stableWeight,
+                float stableDecay,
+                float rankConstant,
+                @Nullable ScoreDistribution scoreDistribution,
+                List<NormalizerStep> steps,
+                TimeValue latencyBudget,
+                BigArrays bigArrays) {
             super(windowSize, INSTANCE);
             this.minScore = minScore;
             this.maxScore = maxScore;
@@ -105,6 +267,13 @@ public class NormalizedCustomRescorer implements Rescorer {
             this.factorMode = factorMode;
             this.factor = factor;
             this.minMaxSameScoreStrategy = minMaxSameScoreStrategy;
+            this.stableWeight = stableWeight;
+            this.stableDecay = stableDecay;
+            this.rankConstant = rankConstant;
+            this.scoreDistribution = scoreDistribution;
+            this.steps = steps;
+            this.latencyBudget = latencyBudget;
+            this.bigArrays = bigArrays;
         }
 
         public String getNormalizerType() {
@@ -154,5 +323,59 @@ public class NormalizedCustomRescorer implements Rescorer {
         public void setMinMaxSameScoreStrategy(String minMaxSameScoreStrategy) {
             this.minMaxSameScoreStrategy = minMaxSameScoreStrategy;
         }
+
+        public float getStableWeight() {
+            return stableWeight;
+        }
+
+        public void setStableWeight(float stableWeight) {
+            this.stableWeight = stableWeight;
+        }
+
+        public float getStableDecay() {
+            return stableDecay;
+        }
+
+        public void setStableDecay(float stableDecay) {
+            this.stableDecay = stableDecay;
+        }
+
+        public float getRankConstant() {
+            return rankConstant;
+        }
+
+        public void setRankConstant(float rankConstant) {
+            this.rankConstant = rankConstant;
+        }
+
+        public ScoreDistribution getScoreDistribution() {
+            return scoreDistribution;
+        }
+
+        public List<NormalizerStep> getSteps() {
+            return steps;
+        }
+
+        public TimeValue getLatencyBudget() {
+            return latencyBudget;
+        }
+
+        public BigArrays getBigArrays() {
+            return bigArrays;
+        }
+
+        /**
+         * 정규화에 사용한 통계 기록 대상. (미지정 시 기록하지 않음)
+         *
+         * @return
+         */
+        @Nullable
+        public NormalizationStatistics getStatistics() {
+            return statistics;
+        }
+
+        public void setStatistics(NormalizationStatistics statistics) {
+            this.statistics = statistics;
+        }
     }
 }
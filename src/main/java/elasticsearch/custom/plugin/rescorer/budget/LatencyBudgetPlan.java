@@ -0,0 +1,77 @@
+package elasticsearch.custom.plugin.rescorer.budget;
+
+import elasticsearch.custom.plugin.enumeration.NormalizerType;
+
+public final class LatencyBudgetPlan {
+
+    private final NormalizerType normalizerType;
+    private final int prefixSize;
+
+    private LatencyBudgetPlan(NormalizerType normalizerType, int prefixSize) {
+        this.normalizerType = normalizerType;
+        this.prefixSize = prefixSize;
+    }
+
+    /**
+     * latency budget 내에서 실행 가능한 정규화 방식 결정.
+     * 예상 소요 시간이 budget 을 넘을 경우 더 저렴한 모드로 순차 대체하며,
+     * min_max 로도 초과할 경우 window 앞부분(prefix)만 정규화합니다.
+     * budget 을 초과한 요청 중 일부(probe)는 요청 모드로 실행하여 추정치를 갱신합니다.
+     * (robust -> robust_approximate -> min_max, z_score / stable -> min_max, percentile_rank / reciprocal_rank 는 대체 없음)
+     *
+     * @param requested     요청된 정규화 모드
+     * @param size          window 도큐먼트 수
+     * @param budgetNanos   latency budget (ns, 0 이하일 경우 제한 없음)
+     * @param costModel     정규화 모드별 측정 비용
+     * @return
+     */
+    public static LatencyBudgetPlan plan(NormalizerType requested, int size, long budgetNanos, NormalizerCostModel costModel) {
+        if (budgetNanos <= 0 || costModel.projectNanos(requested, size) <= budgetNanos) {
+            return new LatencyBudgetPlan(requested, size);
+        }
+        if (costModel.shouldProbe(requested)) {
+            return new LatencyBudgetPlan(requested, size);
+        }
+
+        NormalizerType candidate = fallbackOf(requested);
+        while (candidate != null) {
+            if (costModel.projectNanos(candidate, size) <= budgetNanos) {
+                return new LatencyBudgetPlan(candidate, size);
+            }
+            candidate = fallbackOf(candidate);
+        }
+
+        // min_max 로도 budget 초과 시 budget 내에 처리 가능한 prefix 만 정규화
+        // (rank 계열은 이미 가장 저렴한 단일 탐색이므로 모드를 유지한 채 prefix 만 축소)
+        NormalizerType terminal = isRankType(requested) ? requested : NormalizerType.min_max;
+        int prefixSize = size;
+        while (prefixSize > 1 && costModel.projectNanos(terminal, prefixSize) > budgetNanos) {
+            prefixSize = prefixSize / 2;
+        }
+        return new LatencyBudgetPlan(terminal, prefixSize);
+    }
+
+    private static NormalizerType fallbackOf(NormalizerType normalizerType) {
+        if (normalizerType == NormalizerType.robust) {
+            return NormalizerType.robust_approximate;
+        }
+        if (normalizerType == NormalizerType.robust_approximate
+                || normalizerType == NormalizerType.z_score
+                || normalizerType == NormalizerType.stable) {
+            return NormalizerType.min_max;
+        }
+        return null;
+    }
+
+    private static boolean isRankType(NormalizerType normalizerType) {
+        return normalizerType == NormalizerType.percentile_rank || normalizerType == NormalizerType.reciprocal_rank;
+    }
+
+    public NormalizerType getNormalizerType() {
+        return normalizerType;
+    }
+
+    public int getPrefixSize() {
+        return prefixSize;
+    }
+}
@@ -0,0 +1,134 @@
+package elasticsearch.custom.plugin.rescorer.budget;
+
+import elasticsearch.custom.plugin.enumeration.NormalizerType;
+import org.elasticsearch.xcontent.ToXContentFragment;
+import org.elasticsearch.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class NormalizerCostModel implements ToXContentFragment {
+
+    public static final NormalizerCostModel INSTANCE = new NormalizerCostModel();
+
+    // 측정값이 없을 때 사용하는 작업 단위 당 비용 (ns)
+    private static final double DEFAULT_NANOS_PER_UNIT = 5.0;
+    // 측정값 EWMA 감쇠 계수
+    private static final double DECAY = 0.1;
+    // 한 번의 측정값이 반영될 수 있는 최대 배율 (현재 추정치 기준, cold JIT, GC pause 등 일시적 지연 완화)
+    private static final double MAX_OBSERVED_RATIO = 4.0;
+    // budget 초과로 대체되는 요청 중 요청 모드로 실행하여 비용을 다시 측정하는 주기
+    static final int PROBE_INTERVAL = 32;
+
+    // NormalizerType ordinal 별 작업 단위 당 비용 (ns, double bits, 0 은 미측정)
+    private final AtomicLongArray nanosPerUnit = new AtomicLongArray(NormalizerType.values().length);
+    // NormalizerType ordinal 별 budget 초과 요청 수 (probe 주기 계산용)
+    private final AtomicLongArray overBudget = new AtomicLongArray(NormalizerType.values().length);
+    private final Map<String, LongAdder> downgrades = new ConcurrentHashMap<>();
+    private final LongAdder probes = new LongAdder();
+
+    NormalizerCostModel() {}
+
+    /**
+     * 정규화 모드별 작업 단위 수.
+     * - robust : 정렬 (n log n)
+     * - z_score, stable : 평균, 표준편차 2 pass (2n)
+     * - 그 외 : n
+     *
+     * @param normalizerType
+     * @param size  window 도큐먼트 수
+     * @return
+     */
+    static double workUnits(NormalizerType normalizerType, int size) {
+        if (normalizerType == NormalizerType.robust) {
+            return size * (1 + Math.log(size + 1) / Math.log(2));
+        }
+        if (normalizerType == NormalizerType.z_score || normalizerType == NormalizerType.stable) {
+            return 2.0 * size;
+        }
+        return size;
+    }
+
+    /**
+     * 측정된 작업 단위 당 비용으로 window 정규화 예상 소요 시간 계산. (ns)
+     *
+     * @param normalizerType
+     * @param size
+     * @return
+     */
+    public long projectNanos(NormalizerType normalizerType, int size) {
+        return (long) (nanosPerUnit(normalizerType) * workUnits(normalizerType, size));
+    }
+
+    /**
+     * budget 을 초과한 요청을 대체하지 않고 요청 모드로 실행할지 여부.
+     * 대체된 모드는 실행되지 않아 비용이 갱신되지 않으므로, PROBE_INTERVAL 번째 요청마다 요청 모드로 실행하여
+     * 일시적인 지연으로 높아진 추정치가 회복될 수 있도록 합니다.
+     *
+     * @param normalizerType    요청된 정규화 모드
+     * @return
+     */
+    public boolean shouldProbe(NormalizerType normalizerType) {
+        if (overBudget.incrementAndGet(normalizerType.ordinal()) % PROBE_INTERVAL != 0) {
+            return false;
+        }
+        probes.increment();
+        return true;
+    }
+
+    /**
+     * 정규화 실제 소요 시간을 반영합니다. (lock-free EWMA)
+     * 첫 측정값도 기본 비용에서 시작하는 EWMA 로 반영하며, 한 번의 측정값은 현재 추정치의
+     * MAX_OBSERVED_RATIO 배까지만 반영하여 단일 지연 측정으로 모드가 대체되지 않도록 합니다.
+     *
+     * @param normalizerType
+     * @param size
+     * @param tookNanos
+     */
+    public void record(NormalizerType normalizerType, int size, long tookNanos) {
+        if (size == 0) {
+            return;
+        }
+        double observed = tookNanos / workUnits(normalizerType, size);
+        int index = normalizerType.ordinal();
+        while (true) {
+            long currentBits = nanosPerUnit.get(index);
+            double current = currentBits == 0 ? DEFAULT_NANOS_PER_UNIT : Double.longBitsToDouble(currentBits);
+            double bounded = Math.min(observed, current * MAX_OBSERVED_RATIO);
+            double updated = current + DECAY * (bounded - current);
+            if (nanosPerUnit.compareAndSet(index, currentBits, Double.doubleToLongBits(updated))) {
+                return;
+            }
+        }
+    }
+
+    public void recordDowngrade(NormalizerType from, NormalizerType to, boolean prefix) {
+        String key = from.name() + "->" + to.name() + (prefix ? "(prefix)" : "");
+        downgrades.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+
+    private double nanosPerUnit(NormalizerType normalizerType) {
+        long bits = nanosPerUnit.get(normalizerType.ordinal());
+        return bits == 0 ? DEFAULT_NANOS_PER_UNIT : Double.longBitsToDouble(bits);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject("cost_per_unit_nanos");
+        for (NormalizerType normalizerType : NormalizerType.values()) {
+            builder.field(normalizerType.name(), nanosPerUnit(normalizerType));
+        }
+        builder.endObject();
+        builder.startObject("downgrades");
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(downgrades).entrySet()) {
+            builder.field(entry.getKey(), entry.getValue().sum());
+        }
+        builder.endObject();
+        builder.field("probes", probes.sum());
+        return builder;
+    }
+}
@@ -0,0 +1,177 @@
+package elasticsearch.custom.plugin.rescorer.distribution;
+
+import org.elasticsearch.xcontent.ToXContentObject;
+import org.elasticsearch.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class ScoreDistribution {
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    /**
+     * 현재까지 누적된 score 분포 반환.
+     *
+     * @return
+     */
+    public Snapshot snapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * 하나의 rescore window 요약 통계를 누적 분포에 반영합니다. (lock-free, CAS)
+     * 동시에 갱신되는 경우 불변 snapshot 교체를 재시도하며, 검색 스레드 간 lock 경합이 없습니다.
+     *
+     * @param window    rescore window 요약 통계
+     * @param decay     EWMA 감쇠 계수 (0 ~ 1, 클수록 최근 window 의 비중이 커짐)
+     * @return 갱신 이전 snapshot
+     */
+    public Snapshot update(Snapshot window, double decay) {
+        return snapshot.getAndUpdate(current -> current.merge(window, decay));
+    }
+
+    /**
+     * score 분포 snapshot (불변).
+     * - mean, variance : EWMA 평균, 분산
+     * - min, q1, median, q3, max : window 별 분위수의 EWMA (감쇠 분위수 추정치)
+     * 정규화 기준 범위는 min, max 대신 이상치에 강건한 fence (lowerFence, upperFence) 를 사용합니다.
+     */
+    public static final class Snapshot implements ToXContentObject {
+
+        static final Snapshot EMPTY = new Snapshot(0, 0, 0, 0, 0, 0, 0, 0);
+
+        // Tukey fence 계수 (Q1 - 1.5 IQR, Q3 + 1.5 IQR)
+        static final double IQR_FENCE = 1.5;
+        // IQR 이 0 일 경우 (동점이 절반 이상) 사용하는 표준편차 계수 (평균 ± 3σ)
+        static final double SIGMA_FENCE = 3.0;
+
+        private final long count;
+        private final double mean;
+        private final double variance;
+        private final double min;
+        private final double q1;
+        private final double median;
+        private final double q3;
+        private final double max;
+
+        public Snapshot(long count, double mean, double variance,
+                        double min, double q1, double median, double q3, double max) {
+            this.count = count;
+            this.mean = mean;
+            this.variance = variance;
+            this.min = min;
+            this.q1 = q1;
+            this.median = median;
+            this.q3 = q3;
+            this.max = max;
+        }
+
+        /**
+         * 누적 분포와 window 분포를 EWMA 로 결합.
+         * (감쇠는 경과 시간이 아닌 window 단위로 적용되므로, 반감기는 쿼리 수 기준 약 ln 2 / decay 개 window)
+         * - 분산 : σ'² = (1 - α)σ² + ασw² + α(1 - α)(μw - μ)²
+         *
+         * @param window
+         * @param decay
+         * @return
+         */
+        Snapshot merge(Snapshot window, double decay) {
+            if (count == 0) {
+                return new Snapshot(1, window.mean, window.variance,
+                        window.min, window.q1, window.median, window.q3, window.max);
+            }
+            double delta = window.mean - mean;
+            return new Snapshot(
+                    count + 1,
+                    mean + decay * delta,
+                    (1 - decay) * variance + decay * window.variance + decay * (1 - decay) * delta * delta,
+                    ewma(min, window.min, decay),
+                    ewma(q1, window.q1, decay),
+                    ewma(median, window.median, decay),
+                    ewma(q3, window.q3, decay),
+                    ewma(max, window.max, decay));
+        }
+
+        private static double ewma(double current, double observed, double decay) {
+            return current + decay * (observed - current);
+        }
+
+        /**
+         * 정규화 기준 하한. Q1 - 1.5 IQR 을 사용하며, IQR 이 0 일 경우 평균 - 3σ 사용.
+         * (관측된 min 보다 작아지지 않음)
+         *
+         * @return
+         */
+        public double lowerFence() {
+            double iqr = q3 - q1;
+            double fence = iqr > 0 ? q1 - IQR_FENCE * iqr : mean - SIGMA_FENCE * Math.sqrt(variance);
+            return Math.max(min, fence);
+        }
+
+        /**
+         * 정규화 기준 상한. Q3 + 1.5 IQR 을 사용하며, IQR 이 0 일 경우 평균 + 3σ 사용.
+         * (관측된 max 보다 커지지 않음)
+         *
+         * @return
+         */
+        public double upperFence() {
+            double iqr = q3 - q1;
+            double fence = iqr > 0 ? q3 + IQR_FENCE * iqr : mean + SIGMA_FENCE * Math.sqrt(variance);
+            return Math.min(max, fence);
+        }
+
+        public boolean isEmpty() {
+            return count == 0;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public double getVariance() {
+            return variance;
+        }
+
+        public double getMin() {
+            return min;
+        }
+
+        public double getQ1() {
+            return q1;
+        }
+
+        public double getMedian() {
+            return median;
+        }
+
+        public double getQ3() {
+            return q3;
+        }
+
+        public double getMax() {
+            return max;
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject();
+            builder.field("windows", count);
+            builder.field("mean", mean);
+            builder.field("variance", variance);
+            builder.field("min", min);
+            builder.field("q1", q1);
+            builder.field("median", median);
+            builder.field("q3", q3);
+            builder.field("max", max);
+            builder.field("lower_fence", lowerFence());
+            builder.field("upper_fence", upperFence());
+            builder.endObject();
+            return builder;
+        }
+    }
+}
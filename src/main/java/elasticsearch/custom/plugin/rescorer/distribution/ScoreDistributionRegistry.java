@@ -0,0 +1,51 @@
+package elasticsearch.custom.plugin.rescorer.distribution;
+
+import org.elasticsearch.index.shard.ShardId;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class ScoreDistributionRegistry {
+
+    public static final ScoreDistributionRegistry INSTANCE = new ScoreDistributionRegistry();
+
+    private final Map<ShardId, ScoreDistribution> distributions = new ConcurrentHashMap<>();
+
+    private ScoreDistributionRegistry() {}
+
+    /**
+     * shard 생성 시 누적 score 분포 등록.
+     *
+     * @param shardId
+     */
+    public void create(ShardId shardId) {
+        distributions.putIfAbsent(shardId, new ScoreDistribution());
+    }
+
+    /**
+     * shard 별 누적 score 분포 반환.
+     * 등록되지 않은 shard (종료 중이거나 재배치 중인 shard) 는 registry 에 다시 등록하지 않고,
+     * 해당 요청에서만 사용하는 빈 분포를 반환합니다. (window 통계만으로 정규화)
+     *
+     * @param shardId
+     * @return
+     */
+    public ScoreDistribution get(ShardId shardId) {
+        ScoreDistribution distribution = distributions.get(shardId);
+        return distribution != null ? distribution : new ScoreDistribution();
+    }
+
+    /**
+     * shard 종료 시 누적 score 분포 제거.
+     *
+     * @param shardId
+     */
+    public void remove(ShardId shardId) {
+        distributions.remove(shardId);
+    }
+
+    public Map<ShardId, ScoreDistribution> getDistributions() {
+        return Collections.unmodifiableMap(distributions);
+    }
+}
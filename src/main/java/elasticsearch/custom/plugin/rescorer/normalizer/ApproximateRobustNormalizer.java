@@ -0,0 +1,81 @@
+package elasticsearch.custom.plugin.rescorer.normalizer;
+
+import elasticsearch.custom.plugin.rescorer.NormalizedCustomRescorer;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+
+public class ApproximateRobustNormalizer implements CustomNormalizer {
+
+    /**
+     * 사용자 쿼리를 통해 매칭된 도큐먼트들의 score를 정렬 없이 Robust 정규화 합니다.
+     * (window 가 score 내림차순으로 정렬되어 있다고 가정하고 위치로 중앙값, 사분위수를 읽습니다.
+     *  정렬된 window 에서는 robust 와 결과가 같으며, 정렬이 깨진 window 에서는 근사값입니다.)
+     *
+     * @param topDocs   각 샤드에서 전달 받은 상위 매칭 도큐먼트
+     * @param rescorerContext   Rescorer context (환경 정의 변수)
+     * @param scratch   작업용 scratch buffer (미사용)
+     * @return
+     */
+    @Override
+    public TopDocs normalize(
+            TopDocs topDocs,
+            NormalizedCustomRescorer.NormalizerRescorerContext rescorerContext,
+            NormalizerScratch scratch) {
+
+        if (topDocs.scoreDocs.length == 0) {
+            return topDocs;
+        }
+
+        ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+        float median = getMedianScore(scoreDocs);
+        float IQR = calculatePercentile(scoreDocs, 75) - calculatePercentile(scoreDocs, 25);
+        if (rescorerContext.getStatistics() != null) {
+            rescorerContext.getStatistics().record("median", median);
+            rescorerContext.getStatistics().record("iqr", IQR);
+        }
+        // 분모 0 나누기 방지
+        IQR = (IQR == 0.0f) ? 1.0f : IQR;
+
+        for (ScoreDoc scoreDoc : scoreDocs) {
+            float normalizedScore = RobustNormalizer.calculateRobustScore(scoreDoc.score, median, IQR);
+            scoreDoc.score = RobustNormalizer.applyFactorToNormalizedScore(
+                    rescorerContext.getFactorMode(),
+                    rescorerContext.getFactor(),
+                    normalizedScore);
+        }
+        return topDocs;
+    }
+
+    /**
+     * 오름차순 기준 index 의 score 반환. (window 는 내림차순)
+     *
+     * @param scoreDocs
+     * @param ascendingIndex
+     * @return
+     */
+    static float scoreAt(ScoreDoc[] scoreDocs, int ascendingIndex) {
+        return scoreDocs[scoreDocs.length - 1 - ascendingIndex].score;
+    }
+
+    static float getMedianScore(ScoreDoc[] scoreDocs) {
+        int scoresLength = scoreDocs.length;
+        if (scoresLength % 2 == 0) {
+            return (scoreAt(scoreDocs, scoresLength / 2 - 1) + scoreAt(scoreDocs, scoresLength / 2)) / 2.0f;
+        } else {
+            return scoreAt(scoreDocs, scoresLength / 2);
+        }
+    }
+
+    static float calculatePercentile(ScoreDoc[] scoreDocs, float percentile) {
+        float index = (percentile / 100) * (scoreDocs.length - 1);
+        int lower = (int) Math.floor(index);
+        int upper = (int) Math.ceil(index);
+        float weight = index - lower;
+
+        if (lower == upper) {
+            return scoreAt(scoreDocs, lower);
+        } else {
+            return scoreAt(scoreDocs, lower) * (1 - weight) + scoreAt(scoreDocs, upper) * weight;
+        }
+    }
+}
@@ -5,5 +5,8 @@ import org.apache.lucene.search.TopDocs;
 
 public interface CustomNormalizer {
 
-    TopDocs normalize(TopDocs topDocs, NormalizedCustomRescorer.NormalizerRescorerContext rescorerContext);
+    TopDocs normalize(
+            TopDocs topDocs,
+            NormalizedCustomRescorer.NormalizerRescorerContext rescorerContext,
+            NormalizerScratch scratch);
 }
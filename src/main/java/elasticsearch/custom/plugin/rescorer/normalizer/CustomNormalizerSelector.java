@@ -9,6 +9,10 @@ public final class CustomNormalizerSelector {
     private static final CustomNormalizer minMaxNormalizer = new MinMaxNormalizer();
     private static final CustomNormalizer zScoreNormalizer = new ZScoreNormalizer();
     private static final CustomNormalizer robustNormalizer = new RobustNormalizer();
+    private static final CustomNormalizer approximateRobustNormalizer = new ApproximateRobustNormalizer();
+    private static final CustomNormalizer stableNormalizer = new StableNormalizer();
+    private static final CustomNormalizer percentileRankNormalizer = new PercentileRankNormalizer();
+    private static final CustomNormalizer reciprocalRankNormalizer = new ReciprocalRankNormalizer();
 
     public static CustomNormalizer getCustomNormalizer(NormalizerType normalizerType) {
         if (normalizerType == NormalizerType.min_max) {
@@ -20,6 +24,18 @@ public final class CustomNormalizerSelector {
         if (normalizerType == NormalizerType.robust) {
             return robustNormalizer;
         }
+        if (normalizerType == NormalizerType.robust_approximate) {
+            return approximateRobustNormalizer;
+        }
+        if (normalizerType == NormalizerType.stable) {
+            return stableNormalizer;
+        }
+        if (normalizerType == NormalizerType.percentile_rank) {
+            return percentileRankNormalizer;
+        }
+        if (normalizerType == NormalizerType.reciprocal_rank) {
+            return reciprocalRankNormalizer;
+        }
 
         // default normalizer
         return minMaxNormalizer;
@@ -14,10 +14,14 @@ public class MinMaxNormalizer implements CustomNormalizer {
      *
      * @param topDocs 각 샤드에서 전달 받은 상위 매칭 도큐먼트
      * @param rescorerContext : Rescorer context (환경 정의 변수)
+     * @param scratch   작업용 scratch buffer (미사용)
      * @return
      */
     @Override
-    public TopDocs normalize(TopDocs topDocs, NormalizedCustomRescorer.NormalizerRescorerContext rescorerContext) {
+    public TopDocs normalize(
+            TopDocs topDocs,
+            NormalizedCustomRescorer.NormalizerRescorerContext rescorerContext,
+            NormalizerScratch scratch) {
 
         if (rescorerContext.getMinScore() >= rescorerContext.getMaxScore()) {
             throw new IllegalArgumentException(
@@ -29,6 +33,10 @@ public class MinMaxNormalizer implements CustomNormalizer {
         }
 
         if (topDocs.scoreDocs.length == 1) {
+            if (rescorerContext.getStatistics() != null) {
+                rescorerContext.getStatistics().record("min", topDocs.scoreDocs[0].score);
+                rescorerContext.getStatistics().record("max", topDocs.scoreDocs[0].score);
+            }
             topDocs.scoreDocs[0].score = applyFactorToNormalizedScore(
                     rescorerContext.getFactorMode(), rescorerContext.getFactor(), rescorerContext.getMaxScore());
             return topDocs;
@@ -38,6 +46,10 @@ public class MinMaxNormalizer implements CustomNormalizer {
         float topDocsMinScore = topDocs.scoreDocs[topDocs.scoreDocs.length - 1].score;
         float userCalibratedMaxScore = rescorerContext.getMaxScore();
         float userCalibratedMinScore = rescorerContext.getMinScore();
+        if (rescorerContext.getStatistics() != null) {
+            rescorerContext.getStatistics().record("min", topDocsMinScore);
+            rescorerContext.getStatistics().record("max", topDocsMaxScore);
+        }
 
         if (Float.compare(topDocsMaxScore, topDocsMinScore) == 0) {
             // 상위 매칭 도큐먼트의 최대, 최소 score 가 동일 할 경우
@@ -98,7 +110,7 @@ public class MinMaxNormalizer implements CustomNormalizer {
      * @param normalizedScore   min max normalized document score
      * @return
      */
-    private static float applyFactorToNormalizedScore(String factorMode, float factor, float normalizedScore) {
+    static float applyFactorToNormalizedScore(String factorMode, float factor, float normalizedScore) {
 
         if (factorMode.equals(NormalizerFactorOperation.sum.name())) {
             normalizedScore = normalizedScore + factor;
@@ -0,0 +1,37 @@
+package elasticsearch.custom.plugin.rescorer.normalizer;
+
+import org.elasticsearch.xcontent.ToXContentObject;
+import org.elasticsearch.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class NormalizationStatistics implements ToXContentObject {
+
+    private final Map<String, Float> values = new LinkedHashMap<>();
+
+    /**
+     * normalizer 가 정규화에 사용한 통계 값 기록. (min, max, mean, median, iqr 등)
+     *
+     * @param name
+     * @param value
+     */
+    public void record(String name, float value) {
+        values.put(name, value);
+    }
+
+    public Map<String, Float> getValues() {
+        return values;
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject();
+        for (Map.Entry<String, Float> entry : values.entrySet()) {
+            builder.field(entry.getKey(), entry.getValue());
+        }
+        builder.endObject();
+        return builder;
+    }
+}
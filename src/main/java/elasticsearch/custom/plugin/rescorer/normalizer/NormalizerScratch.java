@@ -0,0 +1,124 @@
+package elasticsearch.custom.plugin.rescorer.normalizer;
+
+import org.apache.lucene.util.IntroSelector;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.FloatArray;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.Releasables;
+
+import java.util.Arrays;
+
+public final class NormalizerScratch implements Releasable {
+
+    // thread 별로 재사용하는 buffer 최대 크기 (float 4096 개 = 16KB, BigArrays page 크기)
+    static final int REUSABLE_SIZE = 4096;
+
+    // search thread 당 한 번만 할당되는 고정 크기 buffer.
+    // 요청 단위 메모리가 아니며 (thread 수 x 16KB 로 상한), request circuit breaker 집계 대상에서 제외
+    private static final ThreadLocal<float[]> REUSABLE = ThreadLocal.withInitial(() -> new float[REUSABLE_SIZE]);
+
+    private final BigArrays bigArrays;
+
+    // 현재 적재된 score 수
+    private int size;
+    // size <= REUSABLE_SIZE : thread 별 buffer, 첫 순서 통계량 조회 시 정렬
+    private float[] reusable;
+    private boolean sorted;
+    // size > REUSABLE_SIZE : BigArrays page, 순서 통계량은 in-place 선택
+    private FloatArray paged;
+    private IntroSelector selector;
+
+    /**
+     * Normalizer 작업용 scratch buffer.
+     * window 크기가 REUSABLE_SIZE 이하일 경우 search thread 별 buffer 를 재사용하여 요청 당 할당이 없으며,
+     * 그보다 큰 window 는 circuit breaker 가 적용된 BigArrays 의 재사용 page 로부터 할당하여
+     * request circuit breaker 에 집계하고 close 시 반환합니다. (circuit breaker 한도 초과 시 CircuitBreakingException 발생)
+     * 적재된 score 는 같은 thread 에서 다음 load 호출 전까지만 유효합니다.
+     *
+     * @param bigArrays 큰 window 의 buffer 할당용 BigArrays (circuit breaker 적용)
+     */
+    public NormalizerScratch(BigArrays bigArrays) {
+        this.bigArrays = bigArrays;
+    }
+
+    /**
+     * size 개의 score 를 적재할 buffer 준비. (이전에 적재된 score 는 무효)
+     *
+     * @param size  적재할 score 수
+     */
+    public void load(int size) {
+        this.size = size;
+        this.sorted = false;
+        if (size <= REUSABLE_SIZE) {
+            reusable = REUSABLE.get();
+            return;
+        }
+        reusable = null;
+        if (paged == null) {
+            paged = bigArrays.newFloatArray(size, false);
+        } else if (paged.size() < size) {
+            paged = bigArrays.grow(paged, size);
+        }
+    }
+
+    public void set(int index, float score) {
+        if (reusable != null) {
+            reusable[index] = score;
+        } else {
+            paged.set(index, score);
+        }
+    }
+
+    /**
+     * 적재된 score 중 오름차순 index 번째 값 (순서 통계량).
+     * 작은 window 는 한 번 정렬 후 위치로 조회하며, 큰 window 는 page 를 복사하거나 정렬하지 않고
+     * in-place 선택(평균 O(n))으로 구합니다.
+     *
+     * @param index 오름차순 위치
+     * @return
+     */
+    public float orderStatistic(int index) {
+        if (reusable != null) {
+            if (sorted == false) {
+                Arrays.sort(reusable, 0, size);
+                sorted = true;
+            }
+            return reusable[index];
+        }
+        selector().select(0, size, index);
+        return paged.get(index);
+    }
+
+    private IntroSelector selector() {
+        if (selector == null) {
+            selector = new IntroSelector() {
+                private float pivot;
+
+                @Override
+                protected void setPivot(int i) {
+                    pivot = paged.get(i);
+                }
+
+                @Override
+                protected int comparePivot(int j) {
+                    return Float.compare(pivot, paged.get(j));
+                }
+
+                @Override
+                protected void swap(int i, int j) {
+                    float tmp = paged.get(i);
+                    paged.set(i, paged.get(j));
+                    paged.set(j, tmp);
+                }
+            };
+        }
+        return selector;
+    }
+
+    @Override
+    public void close() {
+        Releasables.close(paged);
+        paged = null;
+        reusable = null;
+    }
+}
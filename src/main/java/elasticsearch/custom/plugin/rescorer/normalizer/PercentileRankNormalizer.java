@@ -0,0 +1,80 @@
+package elasticsearch.custom.plugin.rescorer.normalizer;
+
+import elasticsearch.custom.plugin.rescorer.NormalizedCustomRescorer;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+
+public class PercentileRankNormalizer implements CustomNormalizer {
+
+    /**
+     * 사용자 쿼리를 통해 매칭된 도큐먼트들의 score를 window 내 백분위 순위로 정규화 합니다.
+     * (window 는 score 내림차순으로 정렬되어 전달되므로, 통계 계산, 정렬, scratch buffer 없이 한 번의 순차 탐색으로 계산.
+     *  동점 도큐먼트는 같은 중간 순위(mid-rank)를 가지며, 이상치의 크기에 영향을 받지 않습니다.)
+     * - 계산식
+     *   percentile rank = (낮은 score 도큐먼트 수 + (동점 도큐먼트 수 - 1) / 2) / (N - 1)
+     *
+     * @param topDocs   각 샤드에서 전달 받은 상위 매칭 도큐먼트
+     * @param rescorerContext   Rescorer context (환경 정의 변수)
+     * @param scratch   작업용 scratch buffer (미사용)
+     * @return
+     */
+    @Override
+    public TopDocs normalize(
+            TopDocs topDocs,
+            NormalizedCustomRescorer.NormalizerRescorerContext rescorerContext,
+            NormalizerScratch scratch) {
+
+        if (rescorerContext.getMinScore() >= rescorerContext.getMaxScore()) {
+            throw new IllegalArgumentException(
+                    "maxScore value cannot be less than or equal to minScore value");
+        }
+
+        ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+        int scoresLength = scoreDocs.length;
+        if (scoresLength == 0) {
+            return topDocs;
+        }
+
+        float userCalibratedMaxScore = rescorerContext.getMaxScore();
+        float userCalibratedMinScore = rescorerContext.getMinScore();
+
+        int groupStart = 0;
+        while (groupStart < scoresLength) {
+            // 동점 구간 [groupStart, groupEnd) 탐색
+            float groupScore = scoreDocs[groupStart].score;
+            int groupEnd = groupStart + 1;
+            while (groupEnd < scoresLength && Float.compare(scoreDocs[groupEnd].score, groupScore) == 0) {
+                groupEnd++;
+            }
+
+            float percentileRank = calculatePercentileRank(scoresLength - groupEnd, groupEnd - groupStart, scoresLength);
+            float normalizedScore = percentileRank * (userCalibratedMaxScore - userCalibratedMinScore) + userCalibratedMinScore;
+            normalizedScore = MinMaxNormalizer.applyFactorToNormalizedScore(
+                    rescorerContext.getFactorMode(),
+                    rescorerContext.getFactor(),
+                    normalizedScore);
+
+            for (int i = groupStart; i < groupEnd; i++) {
+                scoreDocs[i].score = normalizedScore;
+            }
+            groupStart = groupEnd;
+        }
+        return topDocs;
+    }
+
+    /**
+     * 백분위 순위 계산 (0 ~ 1, 도큐먼트가 1개 일 경우 1)
+     *
+     * @param lowerCount    더 낮은 score 를 가진 도큐먼트 수
+     * @param tieCount      같은 score 를 가진 도큐먼트 수 (자신 포함)
+     * @param scoresLength  window 도큐먼트 수
+     * @return
+     */
+    private static float calculatePercentileRank(int lowerCount, int tieCount, int scoresLength) {
+        if (scoresLength == 1) {
+            return 1.0f;
+        }
+        return (lowerCount + (tieCount - 1) / 2.0f) / (scoresLength - 1);
+    }
+
+}
@@ -0,0 +1,49 @@
+package elasticsearch.custom.plugin.rescorer.normalizer;
+
+import elasticsearch.custom.plugin.rescorer.NormalizedCustomRescorer;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+
+public class ReciprocalRankNormalizer implements CustomNormalizer {
+
+    /**
+     * 사용자 쿼리를 통해 매칭된 도큐먼트들의 score를 순위의 역수(reciprocal rank)로 정규화 합니다.
+     * (window 는 score 내림차순으로 정렬되어 전달되므로, 통계 계산, 정렬, scratch buffer 없이 한 번의 순차 탐색으로 계산.
+     *  동점 도큐먼트는 같은 순위(가장 높은 순위)를 가지며, 다른 검색 결과와의 RRF 결합에 사용할 수 있습니다.)
+     * - 계산식
+     *   reciprocal rank = 1 / (rank_constant + rank)   [rank = 1 부터 시작하는 순위]
+     *
+     * @param topDocs   각 샤드에서 전달 받은 상위 매칭 도큐먼트
+     * @param rescorerContext   Rescorer context (환경 정의 변수)
+     * @param scratch   작업용 scratch buffer (미사용)
+     * @return
+     */
+    @Override
+    public TopDocs normalize(
+            TopDocs topDocs,
+            NormalizedCustomRescorer.NormalizerRescorerContext rescorerContext,
+            NormalizerScratch scratch) {
+
+        float rankConstant = rescorerContext.getRankConstant();
+        if (rankConstant < 0) {
+            throw new IllegalArgumentException("rank_constant value cannot be less than 0");
+        }
+
+        ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+        int rank = 0;
+        float previousScore = Float.NaN;
+        for (int i = 0; i < scoreDocs.length; i++) {
+            // 동점이 아닐 경우에만 순위 갱신
+            if (i == 0 || Float.compare(scoreDocs[i].score, previousScore) != 0) {
+                rank = i + 1;
+            }
+            previousScore = scoreDocs[i].score;
+            scoreDocs[i].score = MinMaxNormalizer.applyFactorToNormalizedScore(
+                    rescorerContext.getFactorMode(),
+                    rescorerContext.getFactor(),
+                    1.0f / (rankConstant + rank));
+        }
+        return topDocs;
+    }
+
+}
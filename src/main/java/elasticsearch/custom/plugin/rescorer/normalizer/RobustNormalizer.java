@@ -5,8 +5,6 @@ import elasticsearch.custom.plugin.enumeration.NormalizerFactorOperation;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TopDocs;
 
-import java.util.Arrays;
-
 public class RobustNormalizer implements CustomNormalizer {
 
     /**
@@ -16,19 +14,28 @@ public class RobustNormalizer implements CustomNormalizer {
      *
      * @param topDocs   각 샤드에서 전달 받은 상위 매칭 도큐먼트
      * @param rescorerContext   Rescorer context (환경 정의 변수)
+     * @param scratch   score 를 담을 scratch buffer (큰 window 만 circuit breaker 집계 대상)
      * @return
      */
     @Override
-    public TopDocs normalize(TopDocs topDocs, NormalizedCustomRescorer.NormalizerRescorerContext rescorerContext) {
+    public TopDocs normalize(
+            TopDocs topDocs,
+            NormalizedCustomRescorer.NormalizerRescorerContext rescorerContext,
+            NormalizerScratch scratch) {
 
         if (topDocs.scoreDocs.length == 0) {
             return topDocs;
         }
 
         ScoreDoc[] scoreDocs = topDocs.scoreDocs;
-        float[] scores = getSortedScores(scoreDocs);
-        float median = getMedianScore(scores);
-        float IQR = getIQRScore(scores);
+        loadScores(scoreDocs, scratch);
+        int scoresLength = scoreDocs.length;
+        float median = getMedianScore(scratch, scoresLength);
+        float IQR = getIQRScore(scratch, scoresLength);
+        if (rescorerContext.getStatistics() != null) {
+            rescorerContext.getStatistics().record("median", median);
+            rescorerContext.getStatistics().record("iqr", IQR);
+        }
         // 분모 0 나누기 방지
         IQR = (IQR == 0.0f) ? 1.0f : IQR;
 
@@ -43,21 +50,18 @@ public class RobustNormalizer implements CustomNormalizer {
     }
 
     /**
-     * 매칭된 각 도큐먼트들의 정렬된 Score array 반환.
+     * 매칭된 각 도큐먼트들의 Score 를 scratch buffer 에 적재.
+     * (순서 통계량은 scratch buffer 에서 오름차순 위치로 조회)
      *
      * @param scoreDocs
-     * @return
+     * @param scratch
      */
-    private float[] getSortedScores(ScoreDoc[] scoreDocs) {
+    private void loadScores(ScoreDoc[] scoreDocs, NormalizerScratch scratch) {
         // Score 추출
-        float[] scores = new float[scoreDocs.length];
+        scratch.load(scoreDocs.length);
         for (int i = 0; i < scoreDocs.length; i++) {
-            scores[i] = scoreDocs[i].score;
+            scratch.set(i, scoreDocs[i].score);
         }
-        // Scores 정렬
-        Arrays.sort(scores);
-
-        return scores;
     }
 
     /**
@@ -65,14 +69,14 @@ public class RobustNormalizer implements CustomNormalizer {
      * (도큐먼트 수가 짝수 일 경우 중간 두 값의 평균, 홀수 일 경우 중앙 값 반환)
      *
      * @param scores
+     * @param scoresLength
      * @return
      */
-    private float getMedianScore(float[] scores) {
-        int scoresLength = scores.length;
+    private float getMedianScore(NormalizerScratch scores, int scoresLength) {
         if (scoresLength % 2 == 0) {
-            return (scores[scoresLength / 2 - 1] + scores[scoresLength / 2]) / 2.0f;
+            return (scores.orderStatistic(scoresLength / 2 - 1) + scores.orderStatistic(scoresLength / 2)) / 2.0f;
         } else {
-            return scores[scoresLength / 2];
+            return scores.orderStatistic(scoresLength / 2);
         }
     }
 
@@ -80,11 +84,12 @@ public class RobustNormalizer implements CustomNormalizer {
      * 매칭된 도큐먼트 들의 Score IQR 값 계산 (Q3 - Q1)
      *
      * @param scores
+     * @param scoresLength
      * @return
      */
-    public static float getIQRScore(float[] scores) {
-        float q1 = calculatePercentile(scores, 25);    // 1사분위 수(Q1)
-        float q3 = calculatePercentile(scores, 75);    // 3사분위 수(Q3)
+    public static float getIQRScore(NormalizerScratch scores, int scoresLength) {
+        float q1 = calculatePercentile(scores, scoresLength, 25);    // 1사분위 수(Q1)
+        float q3 = calculatePercentile(scores, scoresLength, 75);    // 3사분위 수(Q3)
         return q3 - q1;
     }
 
@@ -92,12 +97,12 @@ public class RobustNormalizer implements CustomNormalizer {
      * 지정한 백분위수에 위치한 백분위(점수) 계산.
      * 위치가 소수점 일 경우 선형 보간법을 통해 백분위 반환
      *
-     * @param scores        scores array
+     * @param scores        score 가 적재된 scratch buffer
+     * @param scoresLength  scores 유효 길이
      * @param percentile    백분위수
      * @return
      */
-    private static float calculatePercentile(float[] scores, float percentile) {
-        int scoresLength = scores.length;
+    static float calculatePercentile(NormalizerScratch scores, int scoresLength, float percentile) {
         // 지정한 백분위수에 따른 scores 위치
         float index = (percentile / 100) * (scoresLength - 1);
         int lower = (int) Math.floor(index);    // 올림
@@ -105,9 +110,9 @@ public class RobustNormalizer implements CustomNormalizer {
         float weight = index - lower;
 
         if (lower == upper) {
-            return scores[lower];
+            return scores.orderStatistic(lower);
         } else {
-            return scores[lower] * (1 - weight) + scores[upper] * weight;
+            return scores.orderStatistic(lower) * (1 - weight) + scores.orderStatistic(upper) * weight;
         }
     }
 
@@ -119,7 +124,7 @@ public class RobustNormalizer implements CustomNormalizer {
      * @param IQR           documents 의 Score IQR 값
      * @return
      */
-    private static float calculateRobustScore(float currentScore, float median, float IQR) {
+    static float calculateRobustScore(float currentScore, float median, float IQR) {
         return (currentScore - median) / IQR;
     }
 
@@ -131,7 +136,7 @@ public class RobustNormalizer implements CustomNormalizer {
      * @param normalizedScore   min max normalized document score
      * @return
      */
-    private static float applyFactorToNormalizedScore(String factorMode, float factor, float normalizedScore) {
+    static float applyFactorToNormalizedScore(String factorMode, float factor, float normalizedScore) {
 
         if (factorMode.equals(NormalizerFactorOperation.sum.name())) {
             normalizedScore += factor;
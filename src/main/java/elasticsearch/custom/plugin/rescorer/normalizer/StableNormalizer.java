@@ -0,0 +1,156 @@
+package elasticsearch.custom.plugin.rescorer.normalizer;
+
+import elasticsearch.custom.plugin.enumeration.MinMaxSameScoreStrategy;
+import elasticsearch.custom.plugin.rescorer.NormalizedCustomRescorer;
+import elasticsearch.custom.plugin.rescorer.distribution.ScoreDistribution;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+
+public class StableNormalizer implements CustomNormalizer {
+
+    /**
+     * 사용자 쿼리를 통해 매칭된 도큐먼트들의 score를 shard 별 누적 score 분포 기준으로 min max 정규화 합니다.
+     * (window 와 누적 분포의 fence (Q1 - 1.5 IQR ~ Q3 + 1.5 IQR, IQR 0 일 경우 평균 ± 3σ) 를
+     *  stable_weight 로 혼합하여 기준으로 사용하므로, 매칭 도큐먼트 수가 적은 쿼리도 [min_score, max_score]
+     *  전체 범위로 늘어나지 않으며, 이상치 하나가 기준 범위를 끌어당기지 않습니다.)
+     *
+     * @param topDocs   각 샤드에서 전달 받은 상위 매칭 도큐먼트
+     * @param rescorerContext   Rescorer context (환경 정의 변수)
+     * @param scratch   작업용 scratch buffer (미사용)
+     * @return
+     */
+    @Override
+    public TopDocs normalize(
+            TopDocs topDocs,
+            NormalizedCustomRescorer.NormalizerRescorerContext rescorerContext,
+            NormalizerScratch scratch) {
+
+        if (rescorerContext.getMinScore() >= rescorerContext.getMaxScore()) {
+            throw new IllegalArgumentException(
+                    "maxScore value cannot be less than or equal to minScore value");
+        }
+        if (rescorerContext.getStableWeight() < 0 || rescorerContext.getStableWeight() > 1) {
+            throw new IllegalArgumentException("stable_weight allowed range 0 ~ 1");
+        }
+        if (rescorerContext.getStableDecay() <= 0 || rescorerContext.getStableDecay() > 1) {
+            throw new IllegalArgumentException("stable_decay allowed range 0 (exclusive) ~ 1");
+        }
+
+        if (topDocs.scoreDocs.length == 0) {
+            return topDocs;
+        }
+
+        ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+        ScoreDistribution.Snapshot window = summarize(scoreDocs);
+        // 갱신 이전의 누적 분포를 기준으로 사용 (최초 window 는 window 통계만 사용)
+        ScoreDistribution.Snapshot reference = rescorerContext.getScoreDistribution()
+                .update(window, rescorerContext.getStableDecay());
+
+        float weight = reference.isEmpty() ? 0.0f : rescorerContext.getStableWeight();
+        float referenceMinScore = (float) (weight * reference.lowerFence() + (1 - weight) * window.lowerFence());
+        float referenceMaxScore = (float) (weight * reference.upperFence() + (1 - weight) * window.upperFence());
+        if (rescorerContext.getStatistics() != null) {
+            rescorerContext.getStatistics().record("reference_min", referenceMinScore);
+            rescorerContext.getStatistics().record("reference_max", referenceMaxScore);
+        }
+        float userCalibratedMaxScore = rescorerContext.getMaxScore();
+        float userCalibratedMinScore = rescorerContext.getMinScore();
+
+        for (ScoreDoc scoreDoc : scoreDocs) {
+            float normalizedScore;
+            if (referenceMaxScore <= referenceMinScore) {
+                // 기준 최대, 최소 score 가 동일 할 경우
+                normalizedScore = calculateSameScore(
+                        rescorerContext.getMinMaxSameScoreStrategy(), userCalibratedMaxScore, userCalibratedMinScore);
+            } else {
+                normalizedScore = calculateStableScore(
+                        scoreDoc.score,
+                        referenceMaxScore,
+                        referenceMinScore,
+                        userCalibratedMaxScore,
+                        userCalibratedMinScore);
+            }
+            scoreDoc.score = MinMaxNormalizer.applyFactorToNormalizedScore(
+                    rescorerContext.getFactorMode(),
+                    rescorerContext.getFactor(),
+                    normalizedScore);
+        }
+        return topDocs;
+    }
+
+    /**
+     * window 요약 통계 (평균, 분산, min, Q1, 중앙값, Q3, max) 계산.
+     * (window 는 score 내림차순으로 정렬되어 전달되므로 분위수는 정렬 없이 위치로 읽음)
+     *
+     * @param scoreDocs
+     * @return
+     */
+    private ScoreDistribution.Snapshot summarize(ScoreDoc[] scoreDocs) {
+        int scoresLength = scoreDocs.length;
+        double total = 0.0;
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        for (ScoreDoc scoreDoc : scoreDocs) {
+            total += scoreDoc.score;
+            min = Math.min(min, scoreDoc.score);
+            max = Math.max(max, scoreDoc.score);
+        }
+        double mean = total / scoresLength;
+        double totalSumDeviationSquare = 0.0;
+        for (ScoreDoc scoreDoc : scoreDocs) {
+            double deviation = scoreDoc.score - mean;
+            totalSumDeviationSquare += deviation * deviation;
+        }
+
+        return new ScoreDistribution.Snapshot(
+                1,
+                mean,
+                totalSumDeviationSquare / scoresLength,
+                min,
+                ApproximateRobustNormalizer.calculatePercentile(scoreDocs, 25),
+                ApproximateRobustNormalizer.getMedianScore(scoreDocs),
+                ApproximateRobustNormalizer.calculatePercentile(scoreDocs, 75),
+                max);
+    }
+
+    /**
+     * 기준 min, max 가 동일 할 경우 min_max_same_score_strategy 에 따른 score 반환.
+     *
+     * @param strategy
+     * @param userCalibratedMaxScore
+     * @param userCalibratedMinScore
+     * @return
+     */
+    private static float calculateSameScore(String strategy, float userCalibratedMaxScore, float userCalibratedMinScore) {
+        if (strategy.equals(MinMaxSameScoreStrategy.max.name())) {
+            return userCalibratedMaxScore;
+        } else if (strategy.equals(MinMaxSameScoreStrategy.min.name())) {
+            return userCalibratedMinScore;
+        } else {    // avg
+            return (userCalibratedMaxScore + userCalibratedMinScore) / 2;
+        }
+    }
+
+    /**
+     * stable normalization scale calculate
+     * (기준 범위를 벗어나는 score 는 사용자 지정 Min,Max score 로 보정)
+     *
+     * @param currentDocScore   계산 대상 document score
+     * @param referenceMaxScore 누적 분포와 window 의 상한 fence 를 혼합한 기준 max score
+     * @param referenceMinScore 누적 분포와 window 의 하한 fence 를 혼합한 기준 min score
+     * @param userCalibratedMaxScore    사용자 지정 max score 보정 값(final score 최대치)
+     * @param userCalibratedMinScore    사용자 지정 min score 보정 값(final score 최소치)
+     * @return
+     */
+    private static float calculateStableScore(
+            float currentDocScore,
+            float referenceMaxScore,
+            float referenceMinScore,
+            float userCalibratedMaxScore,
+            float userCalibratedMinScore) {
+        float scaled = (currentDocScore - referenceMinScore) / (referenceMaxScore - referenceMinScore);
+        scaled = Math.max(0.0f, Math.min(1.0f, scaled));
+        return scaled * (userCalibratedMaxScore - userCalibratedMinScore) + userCalibratedMinScore;
+    }
+
+}
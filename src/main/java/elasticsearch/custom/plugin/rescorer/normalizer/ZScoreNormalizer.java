@@ -13,10 +13,14 @@ public class ZScoreNormalizer implements CustomNormalizer {
      *
      * @param topDocs   각 샤드에서 전달 받은 상위 매칭 도큐먼트
      * @param rescorerContext   Rescorer context (환경 정의 변수)
+     * @param scratch   작업용 scratch buffer (미사용)
      * @return
      */
     @Override
-    public TopDocs normalize(TopDocs topDocs, NormalizedCustomRescorer.NormalizerRescorerContext rescorerContext) {
+    public TopDocs normalize(
+            TopDocs topDocs,
+            NormalizedCustomRescorer.NormalizerRescorerContext rescorerContext,
+            NormalizerScratch scratch) {
 
         if (topDocs.scoreDocs.length == 0) {
             return topDocs;
@@ -25,6 +29,10 @@ public class ZScoreNormalizer implements CustomNormalizer {
         ScoreDoc[] scoreDocs = topDocs.scoreDocs;
         float meanScore = getMeanScore(scoreDocs);
         float standardDeviation = getStandardDeviation(scoreDocs, meanScore);
+        if (rescorerContext.getStatistics() != null) {
+            rescorerContext.getStatistics().record("mean", meanScore);
+            rescorerContext.getStatistics().record("standard_deviation", standardDeviation);
+        }
         // 분모 0 나누기 방지
         standardDeviation = (standardDeviation == 0.0f) ? 1.0f : standardDeviation;
 
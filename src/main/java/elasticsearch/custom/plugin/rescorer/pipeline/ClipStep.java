@@ -0,0 +1,80 @@
+package elasticsearch.custom.plugin.rescorer.pipeline;
+
+import elasticsearch.custom.plugin.enumeration.NormalizerStepType;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.xcontent.ObjectParser;
+import org.elasticsearch.xcontent.ParseField;
+import org.elasticsearch.xcontent.XContentBuilder;
+
+import java.io.IOException;
+
+public class ClipStep extends NormalizerStep {
+
+    private static final ParseField MIN = new ParseField("min");
+    private static final ParseField MAX = new ParseField("max");
+
+    static final ObjectParser<ClipStep, Void> PARSER =
+            new ObjectParser<>(NormalizerStepType.clip.name(), ClipStep::new);
+
+    static {
+        PARSER.declareFloat(ClipStep::setMin, MIN);
+        PARSER.declareFloat(ClipStep::setMax, MAX);
+    }
+
+    // 미지정 시 해당 방향 clip 없음
+    private float min = Float.NEGATIVE_INFINITY;
+    private float max = Float.POSITIVE_INFINITY;
+
+    public ClipStep() {}
+
+    ClipStep(StreamInput in) throws IOException {
+        min = in.readFloat();
+        max = in.readFloat();
+    }
+
+    @Override
+    public NormalizerStepType getType() {
+        return NormalizerStepType.clip;
+    }
+
+    /**
+     * 단계 입력을 [min, max] 범위로 자릅니다. (통계 불필요)
+     *
+     * @param statistics    단계 입력 기준 window 통계
+     * @return
+     */
+    @Override
+    StepFunction resolve(WindowStatistics statistics) {
+        if (min > max) {
+            throw new IllegalArgumentException("clip step max value cannot be less than min value");
+        }
+        float lower = min;
+        float upper = max;
+        return StepFunction.nonDecreasing(score -> Math.max(lower, Math.min(upper, score)));
+    }
+
+    @Override
+    protected void doWriteTo(StreamOutput out) throws IOException {
+        out.writeFloat(min);
+        out.writeFloat(max);
+    }
+
+    @Override
+    protected void doXContent(XContentBuilder builder, Params params) throws IOException {
+        if (Float.isFinite(min)) {
+            builder.field(MIN.getPreferredName(), min);
+        }
+        if (Float.isFinite(max)) {
+            builder.field(MAX.getPreferredName(), max);
+        }
+    }
+
+    public void setMin(float min) {
+        this.min = min;
+    }
+
+    public void setMax(float max) {
+        this.max = max;
+    }
+}
@@ -0,0 +1,101 @@
+package elasticsearch.custom.plugin.rescorer.pipeline;
+
+import elasticsearch.custom.plugin.enumeration.NormalizerFactorOperation;
+import elasticsearch.custom.plugin.enumeration.NormalizerStepType;
+import elasticsearch.custom.plugin.enumeration.NormalizerType;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.xcontent.ObjectParser;
+import org.elasticsearch.xcontent.ParseField;
+import org.elasticsearch.xcontent.XContentBuilder;
+
+import java.io.IOException;
+
+public class FactorStep extends NormalizerStep {
+
+    private static final ParseField FACTOR = new ParseField("factor");
+    private static final ParseField FACTOR_MODE = new ParseField("factor_mode");
+
+    static final ObjectParser<FactorStep, Void> PARSER =
+            new ObjectParser<>(NormalizerStepType.factor.name(), FactorStep::new);
+
+    static {
+        PARSER.declareFloat(FactorStep::setFactor, FACTOR);
+        PARSER.declareString(FactorStep::setFactorMode, FACTOR_MODE);
+    }
+
+    private float factor = 0.0f;
+    private String factorMode = NormalizerFactorOperation.increase_by_percent.name();
+
+    public FactorStep() {}
+
+    FactorStep(StreamInput in) throws IOException {
+        factor = in.readFloat();
+        factorMode = in.readString();
+    }
+
+    @Override
+    public NormalizerStepType getType() {
+        return NormalizerStepType.factor;
+    }
+
+    /**
+     * factor mode 에 따른 factor 값 적용.
+     * 가장 최근 normalize 단계의 normalizer 와 동일한 계산식을 사용하여 단일 rescorer 와 결과를 맞춥니다.
+     * - z_score, robust : multiply, increase_by_percent 에 절대값 사용 (ZScoreNormalizer, RobustNormalizer)
+     * - 그 외 : MinMaxNormalizer 계산식 (min_max 의 min, max 가 동일 했을 경우 factor 미적용)
+     * increase_by_percent 는 0 점을 factor 로 치환하므로 순서를 보존하지 않을 수 있습니다.
+     *
+     * @param statistics    단계 입력 기준 window 통계
+     * @return
+     */
+    @Override
+    StepFunction resolve(WindowStatistics statistics) {
+        if (statistics.isFactorSkipped()) {
+            return StepFunction.nonDecreasing(score -> score);
+        }
+        float value = factor;
+        boolean absolute = NormalizerType.z_score.name().equals(statistics.factorBasis())
+                || NormalizerType.robust.name().equals(statistics.factorBasis());
+        if (factorMode.equals(NormalizerFactorOperation.sum.name())) {
+            return StepFunction.nonDecreasing(score -> score + value);
+        }
+        if (factorMode.equals(NormalizerFactorOperation.multiply.name())) {
+            if (absolute) {
+                return StepFunction.arbitrary(score -> Math.abs(score) * value);
+            }
+            StepFunction.ScoreTransform multiply = score -> score * value;
+            return value >= 0 ? StepFunction.nonDecreasing(multiply) : StepFunction.arbitrary(multiply);
+        }
+        return StepFunction.arbitrary(score -> {
+            if (score == 0.0f) {
+                return value;
+            }
+            if (value < 0 || value > 1) {
+                throw new IllegalArgumentException(
+                        "increase_by_percent factorMode allowed factor range 0 ~ 1");
+            }
+            return absolute ? score + (Math.abs(score) * value) : score + score * value;
+        });
+    }
+
+    @Override
+    protected void doWriteTo(StreamOutput out) throws IOException {
+        out.writeFloat(factor);
+        out.writeString(factorMode);
+    }
+
+    @Override
+    protected void doXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.field(FACTOR.getPreferredName(), factor);
+        builder.field(FACTOR_MODE.getPreferredName(), factorMode);
+    }
+
+    public void setFactor(float factor) {
+        this.factor = factor;
+    }
+
+    public void setFactorMode(String factorMode) {
+        this.factorMode = factorMode;
+    }
+}
@@ -0,0 +1,167 @@
+package elasticsearch.custom.plugin.rescorer.pipeline;
+
+import elasticsearch.custom.plugin.enumeration.MinMaxSameScoreStrategy;
+import elasticsearch.custom.plugin.enumeration.NormalizerStepType;
+import elasticsearch.custom.plugin.enumeration.NormalizerType;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.xcontent.ObjectParser;
+import org.elasticsearch.xcontent.ParseField;
+import org.elasticsearch.xcontent.XContentBuilder;
+
+import java.io.IOException;
+
+public class NormalizeStep extends NormalizerStep {
+
+    private static final ParseField NORMALIZER_TYPE = new ParseField("normalizer_type");
+    static final ParseField MIN_SCORE = new ParseField("min_score");
+    static final ParseField MAX_SCORE = new ParseField("max_score");
+    static final ParseField MIN_MAX_SAME_SCORE_STRATEGY = new ParseField("min_max_same_score_strategy");
+
+    static final ObjectParser<NormalizeStep, Void> PARSER =
+            new ObjectParser<>(NormalizerStepType.normalize.name(), NormalizeStep::new);
+
+    static {
+        PARSER.declareString(NormalizeStep::setNormalizerType, NORMALIZER_TYPE);
+        PARSER.declareFloat(NormalizeStep::setMinScore, MIN_SCORE);
+        PARSER.declareFloat(NormalizeStep::setMaxScore, MAX_SCORE);
+        PARSER.declareString(NormalizeStep::setMinMaxSameScoreStrategy, MIN_MAX_SAME_SCORE_STRATEGY);
+    }
+
+    private String normalizerType = NormalizerType.min_max.name();
+    private float minScore = 0.0f;
+    private float maxScore = 1.0f;
+    private String minMaxSameScoreStrategy = MinMaxSameScoreStrategy.avg.name();
+
+    public NormalizeStep() {}
+
+    NormalizeStep(StreamInput in) throws IOException {
+        normalizerType = in.readString();
+        minScore = in.readFloat();
+        maxScore = in.readFloat();
+        minMaxSameScoreStrategy = in.readString();
+    }
+
+    @Override
+    public NormalizerStepType getType() {
+        return NormalizerStepType.normalize;
+    }
+
+    /**
+     * 단일 rescorer 와 동일한 정규화 식 (factor 미적용)
+     * - min_max : 단계 입력 min, max 기준 사용자 지정 Min,Max score 범위로 보정
+     * - z_score : 단계 입력 평균, 표준편차 기준 표준화
+     * - robust : 단계 입력 중앙값, IQR 기준 정규화
+     *
+     * @param statistics    단계 입력 기준 window 통계
+     * @return
+     */
+    @Override
+    StepFunction resolve(WindowStatistics statistics) {
+        if (NormalizerType.z_score.name().equals(normalizerType)) {
+            statistics.normalizedBy(normalizerType, false);
+            float meanScore = statistics.mean();
+            float standardDeviation = statistics.standardDeviation();
+            statistics.record("mean", meanScore);
+            statistics.record("standard_deviation", standardDeviation);
+            // 분모 0 나누기 방지
+            float divisor = (standardDeviation == 0.0f) ? 1.0f : standardDeviation;
+            return StepFunction.nonDecreasing(score -> (score - meanScore) / divisor);
+        }
+        if (NormalizerType.robust.name().equals(normalizerType)) {
+            statistics.normalizedBy(normalizerType, false);
+            float median = statistics.median();
+            float IQR = statistics.percentile(75) - statistics.percentile(25);
+            statistics.record("median", median);
+            statistics.record("iqr", IQR);
+            // 분모 0 나누기 방지
+            float divisor = (IQR == 0.0f) ? 1.0f : IQR;
+            return StepFunction.nonDecreasing(score -> (score - median) / divisor);
+        }
+        // MinMaxNormalizer 는 window 의 min, max 가 동일 할 경우 factor 를 적용하지 않음
+        boolean sameScore = statistics.size() > 1 && Float.compare(statistics.max(), statistics.min()) == 0;
+        statistics.normalizedBy(normalizerType, sameScore);
+        return resolveMinMax(statistics, minScore, maxScore, minMaxSameScoreStrategy);
+    }
+
+    /**
+     * min max 정규화 변환 (MinMaxNormalizer 와 동일한 계산식)
+     *
+     * @param statistics    단계 입력 기준 window 통계
+     * @param userCalibratedMinScore    사용자 지정 min score 보정 값
+     * @param userCalibratedMaxScore    사용자 지정 max score 보정 값
+     * @param minMaxSameScoreStrategy   min, max 가 동일 할 경우 전략
+     * @return
+     */
+    static StepFunction resolveMinMax(
+            WindowStatistics statistics,
+            float userCalibratedMinScore,
+            float userCalibratedMaxScore,
+            String minMaxSameScoreStrategy) {
+
+        if (userCalibratedMinScore >= userCalibratedMaxScore) {
+            throw new IllegalArgumentException(
+                    "maxScore value cannot be less than or equal to minScore value");
+        }
+        if (statistics.isRecording()) {
+            statistics.record("min", statistics.min());
+            statistics.record("max", statistics.max());
+        }
+        if (statistics.size() == 1) {
+            return StepFunction.constant(userCalibratedMaxScore);
+        }
+
+        float topDocsMaxScore = statistics.max();
+        float topDocsMinScore = statistics.min();
+        if (Float.compare(topDocsMaxScore, topDocsMinScore) == 0) {
+            if (minMaxSameScoreStrategy.equals(MinMaxSameScoreStrategy.max.name())) {
+                return StepFunction.constant(userCalibratedMaxScore);
+            } else if (minMaxSameScoreStrategy.equals(MinMaxSameScoreStrategy.min.name())) {
+                return StepFunction.constant(userCalibratedMinScore);
+            } else {    // avg
+                return StepFunction.constant((userCalibratedMaxScore + userCalibratedMinScore) / 2);
+            }
+        }
+        return StepFunction.nonDecreasing(score ->
+                ((score - topDocsMinScore) / (topDocsMaxScore - topDocsMinScore))
+                        * (userCalibratedMaxScore - userCalibratedMinScore) + userCalibratedMinScore);
+    }
+
+    @Override
+    protected void doWriteTo(StreamOutput out) throws IOException {
+        out.writeString(normalizerType);
+        out.writeFloat(minScore);
+        out.writeFloat(maxScore);
+        out.writeString(minMaxSameScoreStrategy);
+    }
+
+    @Override
+    protected void doXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.field(NORMALIZER_TYPE.getPreferredName(), normalizerType);
+        builder.field(MIN_SCORE.getPreferredName(), minScore);
+        builder.field(MAX_SCORE.getPreferredName(), maxScore);
+        builder.field(MIN_MAX_SAME_SCORE_STRATEGY.getPreferredName(), minMaxSameScoreStrategy);
+    }
+
+    public void setNormalizerType(String normalizerType) {
+        if (NormalizerType.min_max.name().equals(normalizerType) == false
+                && NormalizerType.z_score.name().equals(normalizerType) == false
+                && NormalizerType.robust.name().equals(normalizerType) == false) {
+            throw new IllegalArgumentException(
+                    "normalize step allowed normalizer_type (min_max, z_score, robust)");
+        }
+        this.normalizerType = normalizerType;
+    }
+
+    public void setMinScore(float minScore) {
+        this.minScore = minScore;
+    }
+
+    public void setMaxScore(float maxScore) {
+        this.maxScore = maxScore;
+    }
+
+    public void setMinMaxSameScoreStrategy(String minMaxSameScoreStrategy) {
+        this.minMaxSameScoreStrategy = minMaxSameScoreStrategy;
+    }
+}
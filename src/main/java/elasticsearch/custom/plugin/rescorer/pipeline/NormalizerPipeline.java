@@ -0,0 +1,53 @@
+package elasticsearch.custom.plugin.rescorer.pipeline;
+
+import elasticsearch.custom.plugin.rescorer.normalizer.NormalizationStatistics;
+import elasticsearch.custom.plugin.rescorer.normalizer.NormalizerScratch;
+import org.elasticsearch.core.Nullable;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+
+import java.util.List;
+
+public final class NormalizerPipeline {
+
+    private NormalizerPipeline() {}
+
+    /**
+     * 여러 정규화 단계를 하나로 합쳐 window 를 한 번만 갱신합니다.
+     * 각 단계의 변환은 앞 단계까지 적용된 score 의 통계로 확정되며, 결과는 단계별 rescorer 를 연결한 것과 동일합니다.
+     * (normalize 뒤의 factor 단계는 해당 normalizer 의 factor 계산식을 따르므로, normalize + factor 는 단일 rescorer 와 동일)
+     * (중간 TopDocs 생성 없음)
+     *
+     * @param topDocs   각 샤드에서 전달 받은 상위 매칭 도큐먼트
+     * @param steps     순서대로 적용할 정규화 단계
+     * @param scratch   순서 통계량 계산용 scratch buffer
+     * @param recorded  단계별 사용 통계 기록 대상 (nullable, "steps.{단계 순서}.{통계}")
+     * @return
+     */
+    public static TopDocs execute(
+            TopDocs topDocs,
+            List<NormalizerStep> steps,
+            NormalizerScratch scratch,
+            @Nullable NormalizationStatistics recorded) {
+        ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+        if (scoreDocs.length == 0 || steps.isEmpty()) {
+            return topDocs;
+        }
+
+        WindowStatistics statistics = new WindowStatistics(scoreDocs, scratch, recorded);
+        StepFunction[] stepFunctions = new StepFunction[steps.size()];
+        for (int i = 0; i < stepFunctions.length; i++) {
+            stepFunctions[i] = steps.get(i).resolve(statistics);
+            statistics.append(stepFunctions[i]);
+        }
+
+        for (ScoreDoc scoreDoc : scoreDocs) {
+            float score = scoreDoc.score;
+            for (StepFunction stepFunction : stepFunctions) {
+                score = stepFunction.apply(score);
+            }
+            scoreDoc.score = score;
+        }
+        return topDocs;
+    }
+}
@@ -0,0 +1,105 @@
+package elasticsearch.custom.plugin.rescorer.pipeline;
+
+import elasticsearch.custom.plugin.enumeration.NormalizerStepType;
+import org.elasticsearch.common.ParsingException;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.xcontent.ToXContentObject;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.XContentParser;
+
+import java.io.IOException;
+
+public abstract class NormalizerStep implements Writeable, ToXContentObject {
+
+    public abstract NormalizerStepType getType();
+
+    /**
+     * 단계 입력의 window 통계를 이용해 이 단계의 score 변환을 확정합니다.
+     *
+     * @param statistics    단계 입력 기준 window 통계
+     * @return
+     */
+    abstract StepFunction resolve(WindowStatistics statistics);
+
+    protected abstract void doWriteTo(StreamOutput out) throws IOException;
+
+    protected abstract void doXContent(XContentBuilder builder, Params params) throws IOException;
+
+    @Override
+    public final void writeTo(StreamOutput out) throws IOException {
+        out.writeEnum(getType());
+        doWriteTo(out);
+    }
+
+    @Override
+    public final XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject();
+        builder.startObject(getType().name());
+        doXContent(builder, params);
+        builder.endObject();
+        builder.endObject();
+        return builder;
+    }
+
+    public static NormalizerStep readFrom(StreamInput in) throws IOException {
+        NormalizerStepType type = in.readEnum(NormalizerStepType.class);
+        switch (type) {
+            case normalize:
+                return new NormalizeStep(in);
+            case clip:
+                return new ClipStep(in);
+            case squash:
+                return new SquashStep(in);
+            case scale:
+                return new ScaleStep(in);
+            default:
+                return new FactorStep(in);
+        }
+    }
+
+    /**
+     * { "<step type>": { ...params } } 형식의 단계 하나를 파싱합니다.
+     *
+     * @param parser
+     * @return
+     * @throws IOException
+     */
+    public static NormalizerStep fromXContent(XContentParser parser) throws IOException {
+        if (parser.currentToken() != XContentParser.Token.START_OBJECT) {
+            throw new ParsingException(parser.getTokenLocation(), "normalizer step must be an object");
+        }
+        if (parser.nextToken() != XContentParser.Token.FIELD_NAME) {
+            throw new ParsingException(parser.getTokenLocation(), "normalizer step must define a step type");
+        }
+        String stepType = parser.currentName();
+        if (NormalizerStepType.isValid(stepType) == false) {
+            throw new ParsingException(parser.getTokenLocation(), "unknown normalizer step [" + stepType + "]");
+        }
+        parser.nextToken();
+
+        NormalizerStep step;
+        switch (NormalizerStepType.valueOf(stepType)) {
+            case normalize:
+                step = NormalizeStep.PARSER.parse(parser, null);
+                break;
+            case clip:
+                step = ClipStep.PARSER.parse(parser, null);
+                break;
+            case squash:
+                step = SquashStep.PARSER.parse(parser, null);
+                break;
+            case scale:
+                step = ScaleStep.PARSER.parse(parser, null);
+                break;
+            default:
+                step = FactorStep.PARSER.parse(parser, null);
+        }
+
+        if (parser.nextToken() != XContentParser.Token.END_OBJECT) {
+            throw new ParsingException(parser.getTokenLocation(), "normalizer step must define exactly one step type");
+        }
+        return step;
+    }
+}
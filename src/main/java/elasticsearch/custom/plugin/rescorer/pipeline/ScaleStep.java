@@ -0,0 +1,76 @@
+package elasticsearch.custom.plugin.rescorer.pipeline;
+
+import elasticsearch.custom.plugin.enumeration.MinMaxSameScoreStrategy;
+import elasticsearch.custom.plugin.enumeration.NormalizerStepType;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.xcontent.ObjectParser;
+import org.elasticsearch.xcontent.XContentBuilder;
+
+import java.io.IOException;
+
+public class ScaleStep extends NormalizerStep {
+
+    static final ObjectParser<ScaleStep, Void> PARSER =
+            new ObjectParser<>(NormalizerStepType.scale.name(), ScaleStep::new);
+
+    static {
+        PARSER.declareFloat(ScaleStep::setMinScore, NormalizeStep.MIN_SCORE);
+        PARSER.declareFloat(ScaleStep::setMaxScore, NormalizeStep.MAX_SCORE);
+        PARSER.declareString(ScaleStep::setMinMaxSameScoreStrategy, NormalizeStep.MIN_MAX_SAME_SCORE_STRATEGY);
+    }
+
+    private float minScore = 0.0f;
+    private float maxScore = 1.0f;
+    private String minMaxSameScoreStrategy = MinMaxSameScoreStrategy.avg.name();
+
+    public ScaleStep() {}
+
+    ScaleStep(StreamInput in) throws IOException {
+        minScore = in.readFloat();
+        maxScore = in.readFloat();
+        minMaxSameScoreStrategy = in.readString();
+    }
+
+    @Override
+    public NormalizerStepType getType() {
+        return NormalizerStepType.scale;
+    }
+
+    /**
+     * 단계 입력을 [min_score, max_score] 범위로 min max 보정합니다.
+     *
+     * @param statistics    단계 입력 기준 window 통계
+     * @return
+     */
+    @Override
+    StepFunction resolve(WindowStatistics statistics) {
+        return NormalizeStep.resolveMinMax(statistics, minScore, maxScore, minMaxSameScoreStrategy);
+    }
+
+    @Override
+    protected void doWriteTo(StreamOutput out) throws IOException {
+        out.writeFloat(minScore);
+        out.writeFloat(maxScore);
+        out.writeString(minMaxSameScoreStrategy);
+    }
+
+    @Override
+    protected void doXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.field(NormalizeStep.MIN_SCORE.getPreferredName(), minScore);
+        builder.field(NormalizeStep.MAX_SCORE.getPreferredName(), maxScore);
+        builder.field(NormalizeStep.MIN_MAX_SAME_SCORE_STRATEGY.getPreferredName(), minMaxSameScoreStrategy);
+    }
+
+    public void setMinScore(float minScore) {
+        this.minScore = minScore;
+    }
+
+    public void setMaxScore(float maxScore) {
+        this.maxScore = maxScore;
+    }
+
+    public void setMinMaxSameScoreStrategy(String minMaxSameScoreStrategy) {
+        this.minMaxSameScoreStrategy = minMaxSameScoreStrategy;
+    }
+}
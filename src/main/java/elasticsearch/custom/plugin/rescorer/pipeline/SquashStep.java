@@ -0,0 +1,66 @@
+package elasticsearch.custom.plugin.rescorer.pipeline;
+
+import elasticsearch.custom.plugin.enumeration.NormalizerStepType;
+import elasticsearch.custom.plugin.enumeration.SquashFunction;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.xcontent.ObjectParser;
+import org.elasticsearch.xcontent.ParseField;
+import org.elasticsearch.xcontent.XContentBuilder;
+
+import java.io.IOException;
+
+public class SquashStep extends NormalizerStep {
+
+    private static final ParseField FUNCTION = new ParseField("function");
+
+    static final ObjectParser<SquashStep, Void> PARSER =
+            new ObjectParser<>(NormalizerStepType.squash.name(), SquashStep::new);
+
+    static {
+        PARSER.declareString(SquashStep::setFunction, FUNCTION);
+    }
+
+    private SquashFunction function = SquashFunction.sigmoid;
+
+    public SquashStep() {}
+
+    SquashStep(StreamInput in) throws IOException {
+        function = in.readEnum(SquashFunction.class);
+    }
+
+    @Override
+    public NormalizerStepType getType() {
+        return NormalizerStepType.squash;
+    }
+
+    /**
+     * 단계 입력을 단조 증가 함수로 압축합니다. (통계 불필요)
+     * - sigmoid : 1 / (1 + e^-x), (0, 1)
+     * - tanh : (-1, 1)
+     *
+     * @param statistics    단계 입력 기준 window 통계
+     * @return
+     */
+    @Override
+    StepFunction resolve(WindowStatistics statistics) {
+        if (function == SquashFunction.tanh) {
+            return StepFunction.nonDecreasing(score -> (float) Math.tanh(score));
+        }
+        return StepFunction.nonDecreasing(score -> (float) (1.0 / (1.0 + Math.exp(-score))));
+    }
+
+    @Override
+    protected void doWriteTo(StreamOutput out) throws IOException {
+        out.writeEnum(function);
+    }
+
+    @Override
+    protected void doXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.field(FUNCTION.getPreferredName(), function.name());
+    }
+
+    public void setFunction(String function) {
+        this.function = SquashFunction.valueOf(function);
+    }
+}
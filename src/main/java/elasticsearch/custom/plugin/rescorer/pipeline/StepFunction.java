@@ -0,0 +1,51 @@
+package elasticsearch.custom.plugin.rescorer.pipeline;
+
+public final class StepFunction {
+
+    @FunctionalInterface
+    public interface ScoreTransform {
+        float apply(float score);
+    }
+
+    private final ScoreTransform transform;
+    private final boolean nonDecreasing;
+
+    private StepFunction(ScoreTransform transform, boolean nonDecreasing) {
+        this.transform = transform;
+        this.nonDecreasing = nonDecreasing;
+    }
+
+    /**
+     * score 순서를 보존하는 (단조 증가) 변환.
+     * 입력의 min, max, 순서 통계량을 변환한 값이 곧 출력의 min, max, 순서 통계량이 됩니다.
+     *
+     * @param transform
+     * @return
+     */
+    public static StepFunction nonDecreasing(ScoreTransform transform) {
+        return new StepFunction(transform, true);
+    }
+
+    /**
+     * score 순서를 보존하지 않을 수 있는 변환.
+     * 이후 단계에서 통계가 필요할 경우 window 를 다시 읽어 계산합니다.
+     *
+     * @param transform
+     * @return
+     */
+    public static StepFunction arbitrary(ScoreTransform transform) {
+        return new StepFunction(transform, false);
+    }
+
+    public static StepFunction constant(float score) {
+        return new StepFunction(s -> score, true);
+    }
+
+    public float apply(float score) {
+        return transform.apply(score);
+    }
+
+    public boolean isNonDecreasing() {
+        return nonDecreasing;
+    }
+}
@@ -0,0 +1,255 @@
+package elasticsearch.custom.plugin.rescorer.pipeline;
+
+import elasticsearch.custom.plugin.rescorer.normalizer.NormalizationStatistics;
+import elasticsearch.custom.plugin.rescorer.normalizer.NormalizerScratch;
+import org.apache.lucene.search.ScoreDoc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class WindowStatistics {
+
+    private final ScoreDoc[] scoreDocs;
+    private final NormalizerScratch scratch;
+    // 각 단계가 사용한 통계 기록 (null 일 경우 미기록)
+    private final NormalizationStatistics recorded;
+    private int step;
+    // 지금까지 resolve 된 단계 (window 원본 score 에 순서대로 적용)
+    private final List<StepFunction> applied = new ArrayList<>();
+
+    // min, max : rangeFrom 번째 단계 입력 기준 값
+    private boolean rangeKnown;
+    private float rangeMin;
+    private float rangeMax;
+    private int rangeFrom;
+
+    // scratch 에 적재된 score (순서 통계량 조회용) : sortedFrom 번째 단계 입력 기준 값
+    private boolean sortedKnown;
+    private int sortedFrom;
+
+    // 평균, 표준편차 : momentsAt 번째 단계 입력 기준 값
+    private int momentsAt = -1;
+    private float mean;
+    private float standardDeviation;
+
+    // 가장 최근 normalize 단계의 normalizer_type (factor 단계 계산식 결정용)
+    private String factorBasis;
+    // 가장 최근 normalize 단계가 min, max 동일 전략으로 상수를 반환 했는지 여부
+    private boolean factorSkipped;
+
+    /**
+     * 파이프라인 각 단계가 필요로 하는 window 통계를 제공합니다.
+     * 단조 증가 단계만 거친 경우 min, max 와 순서 통계량은 원본 통계에 단계 변환을 적용하여 구하며,
+     * 그 외의 경우에만 window 를 다시 읽습니다. (score 쓰기 없음)
+     *
+     * @param scoreDocs 정규화 대상 도큐먼트
+     * @param scratch   순서 통계량 계산용 scratch buffer
+     * @param recorded  단계별 통계 기록 대상 (nullable)
+     */
+    WindowStatistics(ScoreDoc[] scoreDocs, NormalizerScratch scratch, NormalizationStatistics recorded) {
+        this.scoreDocs = scoreDocs;
+        this.scratch = scratch;
+        this.recorded = recorded;
+    }
+
+    public int size() {
+        return scoreDocs.length;
+    }
+
+    public float min() {
+        ensureRange();
+        return applyFrom(rangeFrom, rangeMin);
+    }
+
+    public float max() {
+        ensureRange();
+        return applyFrom(rangeFrom, rangeMax);
+    }
+
+    /**
+     * 현재 단계 입력의 평균. (ZScoreNormalizer 와 동일한 float 누적 순서로 계산)
+     *
+     * @return
+     */
+    public float mean() {
+        ensureMoments();
+        return mean;
+    }
+
+    /**
+     * 현재 단계 입력의 모표준편차. (ZScoreNormalizer 와 동일한 float 누적 순서로 계산)
+     *
+     * @return
+     */
+    public float standardDeviation() {
+        ensureMoments();
+        return standardDeviation;
+    }
+
+    /**
+     * 현재 단계 입력의 중앙값. (RobustNormalizer 와 동일한 계산식)
+     *
+     * @return
+     */
+    public float median() {
+        ensureSorted();
+        int scoresLength = scoreDocs.length;
+        if (scoresLength % 2 == 0) {
+            return (sortedAt(scoresLength / 2 - 1) + sortedAt(scoresLength / 2)) / 2.0f;
+        } else {
+            return sortedAt(scoresLength / 2);
+        }
+    }
+
+    /**
+     * 현재 단계 입력의 백분위(점수). (RobustNormalizer 와 동일한 선형 보간)
+     *
+     * @param percentile    백분위수
+     * @return
+     */
+    public float percentile(float percentile) {
+        ensureSorted();
+        float index = (percentile / 100) * (scoreDocs.length - 1);
+        int lower = (int) Math.floor(index);
+        int upper = (int) Math.ceil(index);
+        float weight = index - lower;
+
+        if (lower == upper) {
+            return sortedAt(lower);
+        } else {
+            return sortedAt(lower) * (1 - weight) + sortedAt(upper) * weight;
+        }
+    }
+
+    /**
+     * 가장 최근 normalize 단계 정보 기록.
+     * 이후 factor 단계는 해당 normalizer 와 동일한 factor 계산식을 사용합니다.
+     *
+     * @param normalizerType    normalize 단계의 normalizer_type
+     * @param skipFactor        단일 rescorer 가 factor 를 적용하지 않는 경우 (min_max, min, max 동일)
+     */
+    void normalizedBy(String normalizerType, boolean skipFactor) {
+        this.factorBasis = normalizerType;
+        this.factorSkipped = skipFactor;
+    }
+
+    public String factorBasis() {
+        return factorBasis;
+    }
+
+    public boolean isFactorSkipped() {
+        return factorSkipped;
+    }
+
+    void append(StepFunction stepFunction) {
+        applied.add(stepFunction);
+        step++;
+    }
+
+    public boolean isRecording() {
+        return recorded != null;
+    }
+
+    /**
+     * 현재 단계가 사용한 통계 값 기록. ("steps.{단계 순서}.{name}")
+     *
+     * @param name
+     * @param value
+     */
+    public void record(String name, float value) {
+        if (recorded != null) {
+            recorded.record("steps." + step + "." + name, value);
+        }
+    }
+
+    private float sortedAt(int index) {
+        return applyFrom(sortedFrom, scratch.orderStatistic(index));
+    }
+
+    private void ensureRange() {
+        if (rangeKnown && isNonDecreasingFrom(rangeFrom)) {
+            return;
+        }
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        for (ScoreDoc scoreDoc : scoreDocs) {
+            float score = applyFrom(0, scoreDoc.score);
+            min = Math.min(min, score);
+            max = Math.max(max, score);
+        }
+        rangeMin = min;
+        rangeMax = max;
+        rangeFrom = applied.size();
+        rangeKnown = true;
+    }
+
+    private void ensureSorted() {
+        if (sortedKnown && isNonDecreasingFrom(sortedFrom)) {
+            return;
+        }
+        int scoresLength = scoreDocs.length;
+        scratch.load(scoresLength);
+        // 적재와 같은 pass 에서 min, max 도 함께 확정
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < scoresLength; i++) {
+            float score = applyFrom(0, scoreDocs[i].score);
+            scratch.set(i, score);
+            min = Math.min(min, score);
+            max = Math.max(max, score);
+        }
+        sortedFrom = applied.size();
+        sortedKnown = true;
+        rangeMin = min;
+        rangeMax = max;
+        rangeFrom = sortedFrom;
+        rangeKnown = true;
+    }
+
+    private void ensureMoments() {
+        if (momentsAt == applied.size()) {
+            return;
+        }
+        // 평균 계산과 같은 pass 에서 min, max 도 함께 확정
+        float total = 0.0f;
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        for (ScoreDoc scoreDoc : scoreDocs) {
+            float score = applyFrom(0, scoreDoc.score);
+            total = total + score;
+            min = Math.min(min, score);
+            max = Math.max(max, score);
+        }
+        float meanScore = total / scoreDocs.length;
+        rangeMin = min;
+        rangeMax = max;
+        rangeFrom = applied.size();
+        rangeKnown = true;
+
+        float totalSumDeviationSquare = 0.0f;
+        for (ScoreDoc scoreDoc : scoreDocs) {
+            float deviation = applyFrom(0, scoreDoc.score) - meanScore;
+            float deviationSquare = deviation * deviation;
+            totalSumDeviationSquare += deviationSquare;
+        }
+        mean = meanScore;
+        standardDeviation = (float) Math.sqrt(totalSumDeviationSquare / scoreDocs.length);
+        momentsAt = applied.size();
+    }
+
+    private float applyFrom(int from, float score) {
+        for (int i = from; i < applied.size(); i++) {
+            score = applied.get(i).apply(score);
+        }
+        return score;
+    }
+
+    private boolean isNonDecreasingFrom(int from) {
+        for (int i = from; i < applied.size(); i++) {
+            if (applied.get(i).isNonDecreasing() == false) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
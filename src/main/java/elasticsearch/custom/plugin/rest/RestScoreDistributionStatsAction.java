@@ -0,0 +1,68 @@
+package elasticsearch.custom.plugin.rest;
+
+import elasticsearch.custom.plugin.rescorer.budget.NormalizerCostModel;
+import elasticsearch.custom.plugin.rescorer.distribution.ScoreDistribution;
+import elasticsearch.custom.plugin.rescorer.distribution.ScoreDistributionRegistry;
+import org.elasticsearch.client.internal.node.NodeClient;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.rest.BaseRestHandler;
+import org.elasticsearch.rest.RestRequest;
+import org.elasticsearch.rest.RestResponse;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.elasticsearch.rest.RestRequest.Method.GET;
+
+public class RestScoreDistributionStatsAction extends BaseRestHandler {
+
+    @Override
+    public String getName() {
+        return "score_normalizer_stats_action";
+    }
+
+    @Override
+    public List<Route> routes() {
+        return List.of(new Route(GET, "/_score_normalizer/stats"));
+    }
+
+    /**
+     * 요청을 받은 노드에 할당된 shard 들의 stable 모드 누적 score 분포와
+     * 정규화 모드별 측정 비용, latency budget 에 따른 모드 대체 횟수 반환.
+     * (index 별 shard 번호 순으로 정렬)
+     *
+     * @param request
+     * @param client
+     * @return
+     * @throws IOException
+     */
+    @Override
+    protected RestChannelConsumer prepareRequest(RestRequest request, NodeClient client) throws IOException {
+        return channel -> {
+            Map<String, Map<Integer, ScoreDistribution.Snapshot>> byIndex = new TreeMap<>();
+            for (Map.Entry<ShardId, ScoreDistribution> entry : ScoreDistributionRegistry.INSTANCE.getDistributions().entrySet()) {
+                byIndex.computeIfAbsent(entry.getKey().getIndexName(), k -> new TreeMap<>())
+                        .put(entry.getKey().id(), entry.getValue().snapshot());
+            }
+
+            XContentBuilder builder = channel.newBuilder();
+            builder.startObject();
+            builder.startObject("score_distributions");
+            for (Map.Entry<String, Map<Integer, ScoreDistribution.Snapshot>> index : byIndex.entrySet()) {
+                builder.startObject(index.getKey());
+                for (Map.Entry<Integer, ScoreDistribution.Snapshot> shard : index.getValue().entrySet()) {
+                    builder.field(String.valueOf(shard.getKey()), shard.getValue());
+                }
+                builder.endObject();
+            }
+            builder.endObject();
+            NormalizerCostModel.INSTANCE.toXContent(builder, request);
+            builder.endObject();
+            channel.sendResponse(new RestResponse(RestStatus.OK, builder));
+        };
+    }
+}
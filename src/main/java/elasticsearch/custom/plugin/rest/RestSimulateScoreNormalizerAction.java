@@ -0,0 +1,410 @@
+package elasticsearch.custom.plugin.rest;
+
+import elasticsearch.custom.plugin.builder.RescorerNormalizerBuilder;
+import elasticsearch.custom.plugin.enumeration.NormalizerType;
+import elasticsearch.custom.plugin.rescorer.NormalizedCustomRescorer;
+import elasticsearch.custom.plugin.rescorer.normalizer.CustomNormalizerSelector;
+import elasticsearch.custom.plugin.rescorer.normalizer.NormalizationStatistics;
+import elasticsearch.custom.plugin.rescorer.normalizer.NormalizerScratch;
+import elasticsearch.custom.plugin.rescorer.pipeline.NormalizerPipeline;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.client.internal.node.NodeClient;
+import org.elasticsearch.common.ParsingException;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.Tuple;
+import org.elasticsearch.rest.BaseRestHandler;
+import org.elasticsearch.rest.ChunkedRestResponseBody;
+import org.elasticsearch.rest.RestChannel;
+import org.elasticsearch.rest.RestRequest;
+import org.elasticsearch.rest.RestResponse;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.xcontent.ToXContent;
+import org.elasticsearch.xcontent.XContentParser;
+import org.elasticsearch.xcontent.XContentParserConfiguration;
+import org.elasticsearch.xcontent.XContentType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.elasticsearch.rest.RestRequest.Method.POST;
+
+public class RestSimulateScoreNormalizerAction extends BaseRestHandler {
+
+    private static final String SCORE_NORMALIZER = "score_normalizer";
+    private static final String WINDOWS = "windows";
+    private static final String BREAKER_LABEL = "<score_normalizer_simulate>";
+
+    // 정규화 중 score 당 임시 메모리 (정렬용 ScoreDoc 객체와 참조, scratch buffer)
+    private static final long SORTED_SCORE_BYTES =
+            RamUsageEstimator.shallowSizeOfInstance(ScoreDoc.class) + RamUsageEstimator.NUM_BYTES_OBJECT_REF + Float.BYTES;
+    // window 당 통계 기록 (NormalizationStatistics) 추정 크기
+    private static final long STATISTICS_BYTES = 256;
+
+    private final int allocatedProcessors;
+    private final Supplier<CircuitBreaker> circuitBreaker;
+
+    /**
+     * @param settings          노드 설정
+     * @param circuitBreaker    요청 메모리를 집계할 score_normalizer circuit breaker
+     */
+    public RestSimulateScoreNormalizerAction(Settings settings, Supplier<CircuitBreaker> circuitBreaker) {
+        this.allocatedProcessors = EsExecutors.allocatedProcessors(settings);
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public String getName() {
+        return "score_normalizer_simulate_action";
+    }
+
+    @Override
+    public List<Route> routes() {
+        return List.of(new Route(POST, "/_score_normalizer/_simulate"));
+    }
+
+    /**
+     * 전달 받은 score 배열들을 rescorer 와 동일한 normalizer 로 정규화하여 결과와 통계를 반환합니다.
+     * - 요청 : { "score_normalizer": { rescorer 와 동일한 옵션 }, "windows": [[score, ...], ...] }
+     * - 요청 본문은 network thread 가 아닌 search thread pool 에서 읽으며, 노드 core 수만큼 나누어 병렬 처리합니다.
+     * - score 배열과 정규화 중 임시 메모리는 score_normalizer circuit breaker 에 집계되며, 한도 초과 시 429 를 반환합니다.
+     * - 정규화 결과는 입력 배열에 덮어쓰고, 응답은 window 단위 chunk 로 전송한 뒤 집계한 메모리를 반환합니다.
+     *   (REST 요청 본문은 handler 실행 전에 http.max_content_length 이내로 모두 수신되므로 본문 읽기 자체는 점진적으로 할 수 없습니다)
+     *
+     * @param request
+     * @param client
+     * @return
+     * @throws IOException
+     */
+    @Override
+    protected RestChannelConsumer prepareRequest(RestRequest request, NodeClient client) throws IOException {
+        Tuple<XContentType, BytesReference> content = request.contentOrSourceParam();
+        XContentParserConfiguration parserConfig = request.contentParserConfig();
+        Executor executor = client.threadPool().executor(ThreadPool.Names.SEARCH);
+        return channel -> {
+            try {
+                executor.execute(() -> {
+                    MemoryReservation reservation = new MemoryReservation(circuitBreaker.get());
+                    try {
+                        List<float[]> windows = new ArrayList<>();
+                        RescorerNormalizerBuilder builder = parse(parserConfig, content, windows, reservation);
+                        simulateAll(builder, windows, channel, executor, reservation);
+                    } catch (Exception e) {
+                        reservation.close();
+                        sendFailure(channel, e);
+                    }
+                });
+            } catch (Exception e) {
+                sendFailure(channel, e);
+            }
+        };
+    }
+
+    /**
+     * 요청 본문 읽기. (score_normalizer 옵션 반환, score 배열은 windows 에 추가)
+     *
+     * @param parserConfig
+     * @param content
+     * @param windows
+     * @param reservation   score 배열 메모리 집계
+     * @return
+     * @throws IOException
+     */
+    private static RescorerNormalizerBuilder parse(
+            XContentParserConfiguration parserConfig,
+            Tuple<XContentType, BytesReference> content,
+            List<float[]> windows,
+            MemoryReservation reservation) throws IOException {
+
+        RescorerNormalizerBuilder normalizerBuilder = null;
+        try (XContentParser parser = XContentHelper.createParser(parserConfig, content.v2(), content.v1())) {
+            if (parser.nextToken() != XContentParser.Token.START_OBJECT) {
+                throw new ParsingException(parser.getTokenLocation(), "request body must be an object");
+            }
+            XContentParser.Token token;
+            while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
+                if (token != XContentParser.Token.FIELD_NAME) {
+                    throw new ParsingException(parser.getTokenLocation(), "unexpected token [" + token + "]");
+                }
+                String fieldName = parser.currentName();
+                parser.nextToken();
+                if (SCORE_NORMALIZER.equals(fieldName)) {
+                    normalizerBuilder = RescorerNormalizerBuilder.fromXContent(parser);
+                } else if (WINDOWS.equals(fieldName)) {
+                    parseWindows(parser, windows, reservation);
+                } else {
+                    throw new ParsingException(parser.getTokenLocation(), "unknown field [" + fieldName + "]");
+                }
+            }
+        }
+        if (normalizerBuilder == null) {
+            throw new IllegalArgumentException("[" + SCORE_NORMALIZER + "] is required");
+        }
+        return normalizerBuilder;
+    }
+
+    /**
+     * score 배열들을 search thread pool 에서 나누어 정규화한 뒤, 응답을 window 단위 chunk 로 전송합니다.
+     * (집계한 메모리는 응답 전송 완료 또는 실패 시 반환)
+     *
+     * @param builder
+     * @param windows
+     * @param channel
+     * @param executor
+     * @param reservation
+     */
+    private void simulateAll(
+            RescorerNormalizerBuilder builder,
+            List<float[]> windows,
+            RestChannel channel,
+            Executor executor,
+            MemoryReservation reservation) {
+        long start = System.nanoTime();
+        NormalizationStatistics[] statistics = new NormalizationStatistics[windows.size()];
+
+        int chunks = Math.max(1, Math.min(allocatedProcessors, windows.size()));
+        AtomicInteger remaining = new AtomicInteger(chunks);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Runnable onChunkDone = () -> {
+            if (remaining.decrementAndGet() != 0) {
+                return;
+            }
+            if (failure.get() != null) {
+                reservation.close();
+                sendFailure(channel, failure.get());
+                return;
+            }
+            try {
+                long took = (System.nanoTime() - start) / 1_000_000;
+                channel.sendResponse(RestResponse.chunked(
+                        RestStatus.OK,
+                        ChunkedRestResponseBody.fromXContent(
+                                params -> responseChunks(took, windows, statistics), ToXContent.EMPTY_PARAMS, channel, reservation)));
+            } catch (Exception e) {
+                reservation.close();
+                sendFailure(channel, e);
+            }
+        };
+
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int from = (int) ((long) windows.size() * chunk / chunks);
+            int to = (int) ((long) windows.size() * (chunk + 1) / chunks);
+            try {
+                executor.execute(() -> {
+                    try {
+                        simulate(builder, windows, from, to, statistics, reservation);
+                    } catch (Exception e) {
+                        failure.compareAndSet(null, e);
+                    }
+                    onChunkDone.run();
+                });
+            } catch (Exception e) {
+                // thread pool 거절 시에도 응답은 한 번만 전송
+                failure.compareAndSet(null, e);
+                onChunkDone.run();
+            }
+        }
+    }
+
+    /**
+     * 응답 본문 chunk. (시작, window 별 결과, 끝)
+     *
+     * @param took
+     * @param windows       정규화된 score 배열
+     * @param statistics
+     * @return
+     */
+    private static Iterator<ToXContent> responseChunks(long took, List<float[]> windows, NormalizationStatistics[] statistics) {
+        return new Iterator<>() {
+            // -1 : 시작, windows.size() : 끝
+            private int next = -1;
+
+            @Override
+            public boolean hasNext() {
+                return next <= windows.size();
+            }
+
+            @Override
+            public ToXContent next() {
+                if (hasNext() == false) {
+                    throw new NoSuchElementException();
+                }
+                int index = next++;
+                if (index < 0) {
+                    return (builder, params) -> builder.startObject().field("took", took).startArray("results");
+                }
+                if (index == windows.size()) {
+                    return (builder, params) -> builder.endArray().endObject();
+                }
+                return (builder, params) -> {
+                    builder.startObject();
+                    builder.array("scores", windows.get(index));
+                    builder.field("statistics", statistics[index]);
+                    return builder.endObject();
+                };
+            }
+        };
+    }
+
+    private static void sendFailure(RestChannel channel, Exception e) {
+        try {
+            channel.sendResponse(new RestResponse(channel, e));
+        } catch (IOException inner) {
+            e.addSuppressed(inner);
+        }
+    }
+
+    /**
+     * "windows" 배열을 float 배열 목록으로 읽습니다.
+     * 각 배열은 할당 전에 circuit breaker 에 집계하며, 한도 초과 시 남은 본문을 읽지 않고 실패합니다.
+     *
+     * @param parser
+     * @param windows
+     * @param reservation
+     * @throws IOException
+     */
+    private static void parseWindows(XContentParser parser, List<float[]> windows, MemoryReservation reservation) throws IOException {
+        if (parser.currentToken() != XContentParser.Token.START_ARRAY) {
+            throw new ParsingException(parser.getTokenLocation(), "[" + WINDOWS + "] must be an array of score arrays");
+        }
+        long bufferBytes = floatArrayBytes(16);
+        reservation.add(bufferBytes);
+        float[] buffer = new float[16];
+        try {
+            while (parser.nextToken() != XContentParser.Token.END_ARRAY) {
+                if (parser.currentToken() != XContentParser.Token.START_ARRAY) {
+                    throw new ParsingException(parser.getTokenLocation(), "[" + WINDOWS + "] must be an array of score arrays");
+                }
+                int length = 0;
+                while (parser.nextToken() != XContentParser.Token.END_ARRAY) {
+                    if (length == buffer.length) {
+                        // 읽기 buffer 증가분 집계
+                        long grownBytes = floatArrayBytes(buffer.length << 1);
+                        reservation.add(grownBytes - bufferBytes);
+                        bufferBytes = grownBytes;
+                        buffer = Arrays.copyOf(buffer, buffer.length << 1);
+                    }
+                    buffer[length++] = parser.floatValue();
+                }
+                reservation.add(floatArrayBytes(length) + STATISTICS_BYTES);
+                windows.add(Arrays.copyOf(buffer, length));
+            }
+        } finally {
+            reservation.release(bufferBytes);
+        }
+    }
+
+    private static long floatArrayBytes(int length) {
+        return RamUsageEstimator.alignObjectSize(RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + (long) length * Float.BYTES);
+    }
+
+    /**
+     * [from, to) 구간의 score 배열 정규화.
+     * rescorer 와 동일하게 score 내림차순(동점 시 입력 순서)으로 정렬한 window 에 normalizer 를 적용한 뒤,
+     * 결과는 입력 순서로 입력 배열에 덮어씁니다. (window 처리 중 임시 메모리는 circuit breaker 에 집계 후 반환)
+     *
+     * @param builder
+     * @param windows
+     * @param from
+     * @param to
+     * @param statistics
+     * @param reservation
+     */
+    private static void simulate(
+            RescorerNormalizerBuilder builder,
+            List<float[]> windows,
+            int from,
+            int to,
+            NormalizationStatistics[] statistics,
+            MemoryReservation reservation) {
+
+        NormalizedCustomRescorer.NormalizerRescorerContext context =
+                builder.buildSimulationContext(0, BigArrays.NON_RECYCLING_INSTANCE);
+        try (NormalizerScratch scratch = new NormalizerScratch(context.getBigArrays())) {
+            for (int w = from; w < to; w++) {
+                float[] scores = windows.get(w);
+                long windowBytes = scores.length * SORTED_SCORE_BYTES;
+                reservation.add(windowBytes);
+                try {
+                    ScoreDoc[] scoreDocs = new ScoreDoc[scores.length];
+                    for (int i = 0; i < scores.length; i++) {
+                        scoreDocs[i] = new ScoreDoc(i, scores[i]);
+                    }
+                    Arrays.sort(scoreDocs, (a, b) -> {
+                        int cmp = Float.compare(b.score, a.score);
+                        return cmp != 0 ? cmp : Integer.compare(a.doc, b.doc);
+                    });
+                    TopDocs topDocs = new TopDocs(new TotalHits(scores.length, TotalHits.Relation.EQUAL_TO), scoreDocs);
+
+                    NormalizationStatistics windowStatistics = new NormalizationStatistics();
+                    context.setStatistics(windowStatistics);
+                    if (scoreDocs.length > 0) {
+                        if (context.getSteps().isEmpty() == false) {
+                            NormalizerPipeline.execute(topDocs, context.getSteps(), scratch, windowStatistics);
+                        } else {
+                            CustomNormalizerSelector
+                                    .getCustomNormalizer(NormalizerType.valueOf(context.getNormalizerType()))
+                                    .normalize(topDocs, context, scratch);
+                        }
+                    }
+
+                    for (ScoreDoc scoreDoc : scoreDocs) {
+                        scores[scoreDoc.doc] = scoreDoc.score;
+                    }
+                    statistics[w] = windowStatistics;
+                } finally {
+                    reservation.release(windowBytes);
+                }
+            }
+        }
+    }
+
+    /**
+     * 요청 한 건이 circuit breaker 에 집계한 메모리. (close 시 남은 집계량 모두 반환)
+     */
+    private static final class MemoryReservation implements Releasable {
+
+        private final CircuitBreaker circuitBreaker;
+        private final AtomicLong reserved = new AtomicLong();
+
+        MemoryReservation(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+        }
+
+        void add(long bytes) {
+            circuitBreaker.addEstimateBytesAndMaybeBreak(bytes, BREAKER_LABEL);
+            reserved.addAndGet(bytes);
+        }
+
+        void release(long bytes) {
+            circuitBreaker.addWithoutBreaking(-bytes);
+            reserved.addAndGet(-bytes);
+        }
+
+        @Override
+        public void close() {
+            long bytes = reserved.getAndSet(0);
+            if (bytes != 0) {
+                circuitBreaker.addWithoutBreaking(-bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package elasticsearch.custom.plugin.query;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NormalizedScoreQueryTest {
+
+    private static final String FIELD = "title";
+    private static final String[] TERMS = {"alpha", "beta", "gamma", "delta", "epsilon", "zeta"};
+
+    @Test
+    void topScoresMatchesCompleteScoring() throws IOException {
+        try (Directory directory = new ByteBuffersDirectory()) {
+            index(directory, 5_000, 1_000);
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                Query disjunction = new BooleanQuery.Builder()
+                        .add(new TermQuery(new Term(FIELD, "alpha")), BooleanClause.Occur.SHOULD)
+                        .add(new TermQuery(new Term(FIELD, "gamma")), BooleanClause.Occur.SHOULD)
+                        .add(new TermQuery(new Term(FIELD, "zeta")), BooleanClause.Occur.SHOULD)
+                        .build();
+
+                // min_score 0 (offset 없음), 0 보다 큰 min_score (offset 역변환)
+                float[][] ranges = {{0.0f, 1.0f}, {0.2f, 1.0f}, {3.0f, 7.5f}};
+                for (float[] range : ranges) {
+                    Query query = new NormalizedScoreQuery(disjunction, range[0], range[1]);
+                    for (int k : new int[]{1, 10, 100}) {
+                        // totalHitsThreshold k : TOP_SCORES (최소 경쟁 score 전달, WAND skipping)
+                        TopScoreDocCollector topScores = TopScoreDocCollector.create(k, k);
+                        searcher.search(query, topScores);
+                        TopDocs expected = search(searcher, query, k, Integer.MAX_VALUE);
+                        TopDocs actual = topScores.topDocs();
+
+                        String message = "range " + range[0] + "~" + range[1] + ", k " + k;
+                        assertEquals(TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO, actual.totalHits.relation, message);
+                        assertEquals(expected.scoreDocs.length, actual.scoreDocs.length, message);
+                        for (int i = 0; i < expected.scoreDocs.length; i++) {
+                            assertEquals(expected.scoreDocs[i].doc, actual.scoreDocs[i].doc, message + " " + i);
+                            assertEquals(expected.scoreDocs[i].score, actual.scoreDocs[i].score, message + " " + i);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void innerMinCompetitiveScoreKeepsCompetitiveDocs() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            float slope = 1e-3f + random.nextFloat() * 10.0f;
+            float offset = random.nextBoolean() ? 0.0f : random.nextFloat() * 5.0f;
+            float score = random.nextFloat() * 30.0f;
+            float minScore = NormalizedScoreScorer.normalize(score, slope, offset);
+
+            // score 자체가 최소 경쟁 score 와 같으므로 건너뛰면 안 됨
+            float innerMinScore = NormalizedScoreScorer.innerMinCompetitiveScore(minScore, slope, offset);
+            assertTrue(innerMinScore <= score, slope + " " + offset + " " + score);
+
+            // 역변환 값 직전 float 은 경쟁 가능하지 않아야 함
+            if (innerMinScore > 0) {
+                float below = Math.nextDown(innerMinScore);
+                assertTrue(NormalizedScoreScorer.normalize(below, slope, offset) < minScore, slope + " " + offset + " " + score);
+            }
+        }
+    }
+
+    private static TopDocs search(IndexSearcher searcher, Query query, int k, int totalHitsThreshold) throws IOException {
+        TopScoreDocCollector collector = TopScoreDocCollector.create(k, totalHitsThreshold);
+        searcher.search(query, collector);
+        return collector.topDocs();
+    }
+
+    /**
+     * 단어 빈도가 치우친 문서 색인. (segment 별 score 상한이 다르도록 commit 단위로 segment 분리)
+     *
+     * @param directory
+     * @param numDocs
+     * @param docsPerSegment
+     * @throws IOException
+     */
+    private static void index(Directory directory, int numDocs, int docsPerSegment) throws IOException {
+        Random random = new Random(7);
+        IndexWriterConfig config = new IndexWriterConfig(new StandardAnalyzer()).setMergePolicy(NoMergePolicy.INSTANCE);
+        try (IndexWriter writer = new IndexWriter(directory, config)) {
+            for (int i = 0; i < numDocs; i++) {
+                StringBuilder text = new StringBuilder();
+                int length = 1 + random.nextInt(20);
+                for (int j = 0; j < length; j++) {
+                    // 앞쪽 단어일수록 자주 등장
+                    int term = Math.min(TERMS.length - 1, (int) (-Math.log(1.0 - random.nextDouble()) * 1.5));
+                    text.append(TERMS[term]).append(' ');
+                }
+                Document document = new Document();
+                document.add(new TextField(FIELD, text.toString(), Field.Store.NO));
+                writer.addDocument(document);
+                if ((i + 1) % docsPerSegment == 0) {
+                    writer.commit();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package elasticsearch.custom.plugin.rescorer;
+
+import elasticsearch.custom.plugin.enumeration.NormalizerType;
+import elasticsearch.custom.plugin.rescorer.normalizer.NormalizerScratch;
+import org.apache.lucene.search.TopDocs;
+import org.elasticsearch.common.util.BigArrays;
+import org.junit.jupiter.api.Test;
+
+import static elasticsearch.custom.plugin.rescorer.NormalizerFixtures.scores;
+import static elasticsearch.custom.plugin.rescorer.NormalizerFixtures.topDocs;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NormalizedCustomRescorerTest {
+
+    // score 내림차순 window
+    private static final float[] WINDOW = {9.0f, 8.0f, 6.5f, 6.0f, 4.0f, 3.5f, 3.5f, 2.0f, 1.0f, 0.5f};
+
+    @Test
+    void minMaxPrefixMatchesFullWindow() {
+        TopDocs expected = topDocs(WINDOW);
+        NormalizerFixtures.normalize(expected, NormalizerFixtures.context(NormalizerType.min_max));
+
+        TopDocs actual = topDocs(WINDOW);
+        normalizePrefix(actual, NormalizerType.min_max, 3);
+
+        float[] expectedScores = scores(expected);
+        float[] actualScores = scores(actual);
+        for (int i = 0; i < WINDOW.length; i++) {
+            assertEquals(expectedScores[i], actualScores[i], 1e-6f, String.valueOf(i));
+        }
+    }
+
+    @Test
+    void prefixTailKeepsOrder() {
+        for (NormalizerType normalizerType : new NormalizerType[]{
+                NormalizerType.min_max, NormalizerType.percentile_rank, NormalizerType.reciprocal_rank}) {
+            TopDocs topDocs = topDocs(WINDOW);
+            normalizePrefix(topDocs, normalizerType, 2);
+
+            float[] scores = scores(topDocs);
+            for (int i = 1; i < WINDOW.length; i++) {
+                if (WINDOW[i] == WINDOW[i - 1]) {
+                    assertEquals(scores[i - 1], scores[i], normalizerType + " " + i);
+                } else {
+                    assertTrue(scores[i] < scores[i - 1], normalizerType + " " + i);
+                }
+            }
+        }
+    }
+
+    private static void normalizePrefix(TopDocs topDocs, NormalizerType normalizerType, int prefixSize) {
+        try (NormalizerScratch scratch = new NormalizerScratch(BigArrays.NON_RECYCLING_INSTANCE)) {
+            NormalizedCustomRescorer.normalizePrefix(
+                    topDocs, NormalizerFixtures.context(normalizerType), normalizerType, prefixSize, scratch);
+        }
+    }
+}
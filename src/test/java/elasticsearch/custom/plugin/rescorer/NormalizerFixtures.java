@@ -0,0 +1,83 @@
+package elasticsearch.custom.plugin.rescorer;
+
+import elasticsearch.custom.plugin.builder.RescorerNormalizerBuilder;
+import elasticsearch.custom.plugin.enumeration.MinMaxSameScoreStrategy;
+import elasticsearch.custom.plugin.enumeration.NormalizerFactorOperation;
+import elasticsearch.custom.plugin.enumeration.NormalizerType;
+import elasticsearch.custom.plugin.rescorer.normalizer.CustomNormalizerSelector;
+import elasticsearch.custom.plugin.rescorer.normalizer.NormalizerScratch;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.core.TimeValue;
+
+import java.util.Collections;
+
+/**
+ * normalizer 테스트 공용 window, context 생성 및 실행 helper.
+ */
+public final class NormalizerFixtures {
+
+    private NormalizerFixtures() {}
+
+    /**
+     * score 순서 그대로의 window 생성. (rescore 에 전달되는 형태는 score 내림차순)
+     *
+     * @param window
+     * @return
+     */
+    public static TopDocs topDocs(float... window) {
+        ScoreDoc[] scoreDocs = new ScoreDoc[window.length];
+        for (int i = 0; i < window.length; i++) {
+            scoreDocs[i] = new ScoreDoc(i, window[i]);
+        }
+        return new TopDocs(new TotalHits(window.length, TotalHits.Relation.EQUAL_TO), scoreDocs);
+    }
+
+    public static float[] scores(TopDocs topDocs) {
+        float[] scores = new float[topDocs.scoreDocs.length];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = topDocs.scoreDocs[i].score;
+        }
+        return scores;
+    }
+
+    /**
+     * 기본값 context. (min_score 0, max_score 1, factor 미적용)
+     *
+     * @param normalizerType
+     * @return
+     */
+    public static NormalizedCustomRescorer.NormalizerRescorerContext context(NormalizerType normalizerType) {
+        // factor 0, increase_by_percent : factor 미적용과 동일
+        return context(normalizerType, 0.0f, 1.0f, 0.0f, NormalizerFactorOperation.increase_by_percent.name(),
+                RescorerNormalizerBuilder.DEFAULT_RANK_CONSTANT);
+    }
+
+    public static NormalizedCustomRescorer.NormalizerRescorerContext context(
+            NormalizerType normalizerType,
+            float minScore,
+            float maxScore,
+            float factor,
+            String factorMode,
+            float rankConstant) {
+        return new NormalizedCustomRescorer.NormalizerRescorerContext(
+                10, normalizerType.name(), minScore, maxScore, factor, factorMode,
+                MinMaxSameScoreStrategy.avg.name(), 0.5f, 0.05f, rankConstant, null, Collections.emptyList(),
+                TimeValue.ZERO, BigArrays.NON_RECYCLING_INSTANCE);
+    }
+
+    /**
+     * context 의 normalizer_type 으로 window 정규화.
+     *
+     * @param topDocs
+     * @param context
+     */
+    public static void normalize(TopDocs topDocs, NormalizedCustomRescorer.NormalizerRescorerContext context) {
+        try (NormalizerScratch scratch = new NormalizerScratch(BigArrays.NON_RECYCLING_INSTANCE)) {
+            CustomNormalizerSelector.getCustomNormalizer(NormalizerType.valueOf(context.getNormalizerType()))
+                    .normalize(topDocs, context, scratch);
+        }
+    }
+}
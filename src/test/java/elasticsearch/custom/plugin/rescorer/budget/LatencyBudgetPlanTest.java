@@ -0,0 +1,97 @@
+package elasticsearch.custom.plugin.rescorer.budget;
+
+import elasticsearch.custom.plugin.enumeration.NormalizerType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyBudgetPlanTest {
+
+    private static final int SIZE = 100;
+    // 기본 비용 기준 robust 예상 시간 (약 3.8µs) 보다 여유 있는 budget
+    private static final long BUDGET_NANOS = 10_000;
+    // cold JIT, GC pause 수준의 지연 (10ms)
+    private static final long SLOW_NANOS = 10_000_000;
+
+    @Test
+    void withinBudgetRunsRequestedMode() {
+        NormalizerCostModel costModel = new NormalizerCostModel();
+        LatencyBudgetPlan plan = LatencyBudgetPlan.plan(NormalizerType.robust, SIZE, BUDGET_NANOS, costModel);
+
+        assertEquals(NormalizerType.robust, plan.getNormalizerType());
+        assertEquals(SIZE, plan.getPrefixSize());
+    }
+
+    @Test
+    void singleSlowSampleDoesNotDowngrade() {
+        NormalizerCostModel costModel = new NormalizerCostModel();
+        costModel.record(NormalizerType.robust, SIZE, SLOW_NANOS);
+
+        LatencyBudgetPlan plan = LatencyBudgetPlan.plan(NormalizerType.robust, SIZE, BUDGET_NANOS, costModel);
+        assertEquals(NormalizerType.robust, plan.getNormalizerType());
+    }
+
+    @Test
+    void persistentSlowSamplesDowngrade() {
+        NormalizerCostModel costModel = new NormalizerCostModel();
+        makeSlow(costModel, NormalizerType.robust);
+
+        LatencyBudgetPlan plan = LatencyBudgetPlan.plan(NormalizerType.robust, SIZE, BUDGET_NANOS, costModel);
+        assertEquals(NormalizerType.robust_approximate, plan.getNormalizerType());
+        assertEquals(SIZE, plan.getPrefixSize());
+    }
+
+    @Test
+    void overBudgetRequestsProbeRequestedMode() {
+        NormalizerCostModel costModel = new NormalizerCostModel();
+        makeSlow(costModel, NormalizerType.robust);
+
+        int probes = 0;
+        for (int i = 0; i < NormalizerCostModel.PROBE_INTERVAL * 4; i++) {
+            LatencyBudgetPlan plan = LatencyBudgetPlan.plan(NormalizerType.robust, SIZE, BUDGET_NANOS, costModel);
+            if (plan.getNormalizerType() == NormalizerType.robust) {
+                probes++;
+            }
+        }
+        assertEquals(4, probes);
+    }
+
+    @Test
+    void probesRecoverDowngradedMode() {
+        NormalizerCostModel costModel = new NormalizerCostModel();
+        makeSlow(costModel, NormalizerType.robust);
+        assertTrue(costModel.projectNanos(NormalizerType.robust, SIZE) > BUDGET_NANOS);
+
+        // 지연이 해소된 뒤에는 probe 로 실행된 요청만 비용을 갱신
+        long fastNanos = (long) NormalizerCostModel.workUnits(NormalizerType.robust, SIZE);
+        int plans = 0;
+        while (costModel.projectNanos(NormalizerType.robust, SIZE) > BUDGET_NANOS) {
+            LatencyBudgetPlan plan = LatencyBudgetPlan.plan(NormalizerType.robust, SIZE, BUDGET_NANOS, costModel);
+            costModel.record(plan.getNormalizerType(), plan.getPrefixSize(), fastNanos);
+            plans++;
+            assertTrue(plans < NormalizerCostModel.PROBE_INTERVAL * 200, "robust estimate never recovered");
+        }
+
+        LatencyBudgetPlan plan = LatencyBudgetPlan.plan(NormalizerType.robust, SIZE, BUDGET_NANOS, costModel);
+        assertEquals(NormalizerType.robust, plan.getNormalizerType());
+        assertEquals(SIZE, plan.getPrefixSize());
+    }
+
+    @Test
+    void rankTypesKeepModeAndShrinkPrefix() {
+        NormalizerCostModel costModel = new NormalizerCostModel();
+        makeSlow(costModel, NormalizerType.reciprocal_rank);
+
+        LatencyBudgetPlan plan = LatencyBudgetPlan.plan(NormalizerType.reciprocal_rank, SIZE, BUDGET_NANOS, costModel);
+        assertEquals(NormalizerType.reciprocal_rank, plan.getNormalizerType());
+        assertTrue(plan.getPrefixSize() < SIZE);
+        assertTrue(costModel.projectNanos(NormalizerType.reciprocal_rank, plan.getPrefixSize()) <= BUDGET_NANOS
+                || plan.getPrefixSize() == 1);
+    }
+
+    private static void makeSlow(NormalizerCostModel costModel, NormalizerType normalizerType) {
+        for (int i = 0; i < 50; i++) {
+            costModel.record(normalizerType, SIZE, SLOW_NANOS);
+        }
+    }
+}
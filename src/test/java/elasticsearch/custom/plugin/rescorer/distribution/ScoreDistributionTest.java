@@ -0,0 +1,41 @@
+package elasticsearch.custom.plugin.rescorer.distribution;
+
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.shard.ShardId;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoreDistributionTest {
+
+    @Test
+    void outlierDoesNotStretchFence() {
+        // Q1 1, Q3 3 : fence 는 [-2, 6], 이상치 max 100 무시
+        ScoreDistribution.Snapshot snapshot = new ScoreDistribution.Snapshot(1, 10, 900, 0, 1, 2, 3, 100);
+        assertEquals(0.0, snapshot.lowerFence());
+        assertEquals(6.0, snapshot.upperFence());
+    }
+
+    @Test
+    void zeroIqrFallsBackToStandardDeviation() {
+        // Q1 == Q3 : 평균 ± 3σ, 관측 min, max 범위 이내
+        ScoreDistribution.Snapshot snapshot = new ScoreDistribution.Snapshot(1, 5, 1, 0, 5, 5, 5, 20);
+        assertEquals(2.0, snapshot.lowerFence());
+        assertEquals(8.0, snapshot.upperFence());
+    }
+
+    @Test
+    void closedShardIsNotRegisteredAgain() {
+        ShardId shardId = new ShardId(new Index("index", "uuid"), 0);
+        ScoreDistributionRegistry registry = ScoreDistributionRegistry.INSTANCE;
+
+        registry.create(shardId);
+        ScoreDistribution registered = registry.get(shardId);
+        assertSame(registered, registry.get(shardId));
+
+        // shard 종료 후 끝나는 검색은 빈 분포를 사용하고 registry 에 남기지 않음
+        registry.remove(shardId);
+        assertNotNull(registry.get(shardId));
+        assertFalse(registry.getDistributions().containsKey(shardId));
+    }
+}
@@ -0,0 +1,36 @@
+package elasticsearch.custom.plugin.rescorer.normalizer;
+
+import org.elasticsearch.common.util.BigArrays;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NormalizerScratchTest {
+
+    @Test
+    void orderStatisticsMatchSortedScores() {
+        Random random = new Random(42);
+        // thread 별 buffer, BigArrays page 경계 전후
+        int[] sizes = {1, 7, NormalizerScratch.REUSABLE_SIZE, NormalizerScratch.REUSABLE_SIZE + 1, 20_000};
+        try (NormalizerScratch scratch = new NormalizerScratch(BigArrays.NON_RECYCLING_INSTANCE)) {
+            for (int size : sizes) {
+                float[] scores = new float[size];
+                scratch.load(size);
+                for (int i = 0; i < size; i++) {
+                    // 동점 포함
+                    scores[i] = random.nextInt(size / 2 + 1) / 10.0f;
+                    scratch.set(i, scores[i]);
+                }
+                Arrays.sort(scores);
+
+                int[] positions = {size / 2, size / 4, 0, size - 1, (size * 3) / 4};
+                for (int position : positions) {
+                    assertEquals(scores[position], scratch.orderStatistic(position), size + " " + position);
+                }
+            }
+        }
+    }
+}
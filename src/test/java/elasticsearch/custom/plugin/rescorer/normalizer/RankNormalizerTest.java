@@ -0,0 +1,134 @@
+package elasticsearch.custom.plugin.rescorer.normalizer;
+
+import elasticsearch.custom.plugin.enumeration.NormalizerFactorOperation;
+import elasticsearch.custom.plugin.enumeration.NormalizerType;
+import elasticsearch.custom.plugin.rescorer.NormalizerFixtures;
+import org.apache.lucene.search.TopDocs;
+import org.junit.jupiter.api.Test;
+
+import static elasticsearch.custom.plugin.rescorer.NormalizerFixtures.scores;
+import static elasticsearch.custom.plugin.rescorer.NormalizerFixtures.topDocs;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankNormalizerTest {
+
+    private static final float RANK_CONSTANT = 60.0f;
+
+    @Test
+    void percentileRankAllDistinct() {
+        assertArrayEquals(
+                new float[]{3.0f / 3, 2.0f / 3, 1.0f / 3, 0.0f / 3},
+                percentileRank(4.0f, 3.0f, 2.0f, 1.0f));
+    }
+
+    @Test
+    void percentileRankAllTied() {
+        // 모든 도큐먼트가 같은 중간 순위 (0 + 3 / 2) / 3
+        assertArrayEquals(
+                new float[]{1.5f / 3, 1.5f / 3, 1.5f / 3, 1.5f / 3},
+                percentileRank(5.0f, 5.0f, 5.0f, 5.0f));
+    }
+
+    @Test
+    void percentileRankSingleDocument() {
+        assertArrayEquals(new float[]{1.0f}, percentileRank(7.0f));
+    }
+
+    @Test
+    void percentileRankTieAtTop() {
+        assertArrayEquals(
+                new float[]{2.5f / 3, 2.5f / 3, 1.0f / 3, 0.0f / 3},
+                percentileRank(9.0f, 9.0f, 4.0f, 1.0f));
+    }
+
+    @Test
+    void percentileRankTieAtBottom() {
+        assertArrayEquals(
+                new float[]{3.0f / 3, 2.0f / 3, 0.5f / 3, 0.5f / 3},
+                percentileRank(9.0f, 4.0f, 1.0f, 1.0f));
+    }
+
+    @Test
+    void percentileRankScalesToUserRange() {
+        TopDocs topDocs = topDocs(3.0f, 2.0f, 1.0f);
+        normalize(topDocs, NormalizerType.percentile_rank, 10.0f, 20.0f);
+        assertArrayEquals(new float[]{20.0f, 15.0f, 10.0f}, scores(topDocs));
+    }
+
+    @Test
+    void percentileRankRejectsInvalidRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> normalize(topDocs(1.0f), NormalizerType.percentile_rank, 1.0f, 1.0f));
+    }
+
+    @Test
+    void reciprocalRankAllDistinct() {
+        assertArrayEquals(
+                new float[]{reciprocal(1), reciprocal(2), reciprocal(3), reciprocal(4)},
+                reciprocalRank(4.0f, 3.0f, 2.0f, 1.0f));
+    }
+
+    @Test
+    void reciprocalRankAllTied() {
+        assertArrayEquals(
+                new float[]{reciprocal(1), reciprocal(1), reciprocal(1), reciprocal(1)},
+                reciprocalRank(5.0f, 5.0f, 5.0f, 5.0f));
+    }
+
+    @Test
+    void reciprocalRankSingleDocument() {
+        assertArrayEquals(new float[]{reciprocal(1)}, reciprocalRank(7.0f));
+    }
+
+    @Test
+    void reciprocalRankTieAtTop() {
+        // 동점은 구간의 첫 순위를 공유하고, 다음 도큐먼트는 동점 수만큼 건너뛴 순위
+        assertArrayEquals(
+                new float[]{reciprocal(1), reciprocal(1), reciprocal(3), reciprocal(4)},
+                reciprocalRank(9.0f, 9.0f, 4.0f, 1.0f));
+    }
+
+    @Test
+    void reciprocalRankTieAtBottom() {
+        assertArrayEquals(
+                new float[]{reciprocal(1), reciprocal(2), reciprocal(3), reciprocal(3)},
+                reciprocalRank(9.0f, 4.0f, 1.0f, 1.0f));
+    }
+
+    @Test
+    void reciprocalRankRejectsNegativeConstant() {
+        TopDocs topDocs = topDocs(1.0f);
+        assertThrows(IllegalArgumentException.class, () -> normalize(topDocs, NormalizerType.reciprocal_rank, -1.0f));
+    }
+
+    private static float reciprocal(int rank) {
+        return 1.0f / (RANK_CONSTANT + rank);
+    }
+
+    private static float[] percentileRank(float... window) {
+        TopDocs topDocs = topDocs(window);
+        normalize(topDocs, NormalizerType.percentile_rank, 0.0f, 1.0f);
+        return scores(topDocs);
+    }
+
+    private static float[] reciprocalRank(float... window) {
+        TopDocs topDocs = topDocs(window);
+        normalize(topDocs, NormalizerType.reciprocal_rank, RANK_CONSTANT);
+        return scores(topDocs);
+    }
+
+    private static void normalize(TopDocs topDocs, NormalizerType normalizerType, float minScore, float maxScore) {
+        normalize(topDocs, normalizerType, minScore, maxScore, RANK_CONSTANT);
+    }
+
+    private static void normalize(TopDocs topDocs, NormalizerType normalizerType, float rankConstant) {
+        normalize(topDocs, normalizerType, 0.0f, 1.0f, rankConstant);
+    }
+
+    private static void normalize(
+            TopDocs topDocs, NormalizerType normalizerType, float minScore, float maxScore, float rankConstant) {
+        // factor 0, sum : factor 미적용과 동일
+        NormalizerFixtures.normalize(topDocs, NormalizerFixtures.context(
+                normalizerType, minScore, maxScore, 0.0f, NormalizerFactorOperation.sum.name(), rankConstant));
+    }
+}
@@ -0,0 +1,171 @@
+package elasticsearch.custom.plugin.rescorer.pipeline;
+
+import elasticsearch.custom.plugin.builder.RescorerNormalizerBuilder;
+import elasticsearch.custom.plugin.enumeration.NormalizerFactorOperation;
+import elasticsearch.custom.plugin.enumeration.NormalizerType;
+import elasticsearch.custom.plugin.rescorer.NormalizedCustomRescorer;
+import elasticsearch.custom.plugin.rescorer.NormalizerFixtures;
+import elasticsearch.custom.plugin.rescorer.normalizer.NormalizationStatistics;
+import elasticsearch.custom.plugin.rescorer.normalizer.NormalizerScratch;
+import org.apache.lucene.search.TopDocs;
+import org.elasticsearch.common.util.BigArrays;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static elasticsearch.custom.plugin.rescorer.NormalizerFixtures.scores;
+import static elasticsearch.custom.plugin.rescorer.NormalizerFixtures.topDocs;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NormalizerPipelineTest {
+
+    // score 내림차순 window (rescore 에 전달되는 형태)
+    private static final float[][] WINDOWS = {
+            {3.2f, 2.5f, 2.5f, 1.0f, -0.5f},
+            {3.0f, 2.0f, 1.0f},                 // z_score, robust 결과에 0 포함
+            {10.0f, 4.0f, 3.0f, 2.9f, 0.1f, 0.0f},
+            {5.0f, 5.0f, 5.0f},                 // min, max 동일
+            {7.0f}
+    };
+
+    private static final String[] NORMALIZER_TYPES = {
+            NormalizerType.min_max.name(), NormalizerType.z_score.name(), NormalizerType.robust.name()
+    };
+
+    private static final String[] FACTOR_MODES = {
+            NormalizerFactorOperation.sum.name(),
+            NormalizerFactorOperation.multiply.name(),
+            NormalizerFactorOperation.increase_by_percent.name()
+    };
+
+    @Test
+    void normalizeThenFactorMatchesSingleNormalizer() {
+        for (float[] window : WINDOWS) {
+            for (String normalizerType : NORMALIZER_TYPES) {
+                for (String factorMode : FACTOR_MODES) {
+                    float factor = factorMode.equals(NormalizerFactorOperation.increase_by_percent.name()) ? 0.3f : 1.5f;
+
+                    TopDocs expected = topDocs(window);
+                    normalize(expected, normalizerType, factor, factorMode);
+
+                    TopDocs actual = topDocs(window);
+                    execute(actual, List.of(normalizeStep(normalizerType), factorStep(factor, factorMode)));
+
+                    assertArrayEquals(scores(expected), scores(actual),
+                            normalizerType + " " + factorMode + " " + Arrays.toString(window));
+                }
+            }
+        }
+    }
+
+    @Test
+    void chainedNormalizeStepsMatchChainedNormalizers() {
+        for (float[] window : WINDOWS) {
+            // factor 0, increase_by_percent : 단일 normalizer 의 factor 미적용과 동일
+            TopDocs expected = topDocs(window);
+            normalize(expected, NormalizerType.z_score.name(), 0.0f, NormalizerFactorOperation.increase_by_percent.name());
+            normalize(expected, NormalizerType.min_max.name(), 0.0f, NormalizerFactorOperation.increase_by_percent.name());
+
+            TopDocs actual = topDocs(window);
+            execute(actual, List.of(
+                    normalizeStep(NormalizerType.z_score.name()),
+                    normalizeStep(NormalizerType.min_max.name())));
+
+            assertArrayEquals(scores(expected), scores(actual), Arrays.toString(window));
+        }
+    }
+
+    @Test
+    void recordsRealStatisticsForNormalizersAndSteps() {
+        float[] constant = {5.0f, 5.0f, 5.0f};
+
+        // 분모 0 치환 이전의 실제 표준편차, IQR 기록
+        NormalizationStatistics zScore = new NormalizationStatistics();
+        normalize(topDocs(constant), NormalizerType.z_score.name(), zScore);
+        assertEquals(5.0f, value(zScore, "mean"));
+        assertEquals(0.0f, value(zScore, "standard_deviation"));
+
+        NormalizationStatistics robust = new NormalizationStatistics();
+        normalize(topDocs(constant), NormalizerType.robust.name(), robust);
+        assertEquals(5.0f, value(robust, "median"));
+        assertEquals(0.0f, value(robust, "iqr"));
+
+        // 단일 도큐먼트도 min, max 기록
+        NormalizationStatistics minMax = new NormalizationStatistics();
+        normalize(topDocs(new float[]{7.0f}), NormalizerType.min_max.name(), minMax);
+        assertEquals(7.0f, value(minMax, "min"));
+        assertEquals(7.0f, value(minMax, "max"));
+
+        // pipeline 은 단계 순서별로 기록
+        NormalizationStatistics steps = new NormalizationStatistics();
+        try (NormalizerScratch scratch = new NormalizerScratch(BigArrays.NON_RECYCLING_INSTANCE)) {
+            NormalizerPipeline.execute(
+                    topDocs(new float[]{3.0f, 2.0f, 1.0f}),
+                    List.of(normalizeStep(NormalizerType.z_score.name()), normalizeStep(NormalizerType.min_max.name())),
+                    scratch,
+                    steps);
+        }
+        assertEquals(2.0f, value(steps, "steps.0.mean"));
+        assertTrue(value(steps, "steps.0.standard_deviation") > 0.0f);
+        assertTrue(value(steps, "steps.1.min") < 0.0f);
+        assertTrue(value(steps, "steps.1.max") > 0.0f);
+    }
+
+    @Test
+    void normalizeStepRejectsTypesWithoutPipelineSupport() {
+        NormalizeStep step = new NormalizeStep();
+        for (NormalizerType normalizerType : NormalizerType.values()) {
+            boolean supported = normalizerType == NormalizerType.min_max
+                    || normalizerType == NormalizerType.z_score
+                    || normalizerType == NormalizerType.robust;
+            if (supported) {
+                step.setNormalizerType(normalizerType.name());
+            } else {
+                assertThrows(IllegalArgumentException.class, () -> step.setNormalizerType(normalizerType.name()));
+            }
+        }
+    }
+
+    private static void normalize(TopDocs topDocs, String normalizerType, NormalizationStatistics statistics) {
+        normalize(topDocs, normalizerType, 0.0f, NormalizerFactorOperation.increase_by_percent.name(), statistics);
+    }
+
+    private static void normalize(TopDocs topDocs, String normalizerType, float factor, String factorMode) {
+        normalize(topDocs, normalizerType, factor, factorMode, null);
+    }
+
+    private static void normalize(
+            TopDocs topDocs, String normalizerType, float factor, String factorMode, NormalizationStatistics statistics) {
+        NormalizedCustomRescorer.NormalizerRescorerContext context = NormalizerFixtures.context(
+                NormalizerType.valueOf(normalizerType), 0.0f, 1.0f, factor, factorMode,
+                RescorerNormalizerBuilder.DEFAULT_RANK_CONSTANT);
+        context.setStatistics(statistics);
+        NormalizerFixtures.normalize(topDocs, context);
+    }
+
+    private static float value(NormalizationStatistics statistics, String name) {
+        Float value = statistics.getValues().get(name);
+        assertNotNull(value, name);
+        return value;
+    }
+
+    private static void execute(TopDocs topDocs, List<NormalizerStep> steps) {
+        try (NormalizerScratch scratch = new NormalizerScratch(BigArrays.NON_RECYCLING_INSTANCE)) {
+            NormalizerPipeline.execute(topDocs, steps, scratch, null);
+        }
+    }
+
+    private static NormalizeStep normalizeStep(String normalizerType) {
+        NormalizeStep step = new NormalizeStep();
+        step.setNormalizerType(normalizerType);
+        return step;
+    }
+
+    private static FactorStep factorStep(float factor, String factorMode) {
+        FactorStep step = new FactorStep();
+        step.setFactor(factor);
+        step.setFactorMode(factorMode);
+        return step;
+    }
+}